@@ -0,0 +1,56 @@
+package moviesinfoservice.benchmark;
+
+import java.time.Duration;
+import moviesinfoservice.blocking.MovieInfoBlocking;
+import moviesinfoservice.config.BlockingProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+
+/**
+ * Bursts of concurrent blocking calls through MovieInfoBlocking, on virtual threads against
+ * boundedElastic. One operation is a whole burst, boundedElastic runs at most 10 calls per core at
+ * a time and queues the others.
+ */
+@State(Scope.Benchmark)
+public class BlockingSchedulerBenchmark {
+
+  @Param({"virtualThreads", "boundedElastic"})
+  String scheduler;
+
+  @Param({"1000", "10000"})
+  int concurrentCalls;
+
+  @Param({"10"})
+  int blockingMillis;
+
+  private MovieInfoBlocking movieInfoBlocking;
+
+  @Setup
+  public void setup() {
+    var properties = new BlockingProperties();
+    properties.setVirtualThreads("virtualThreads".equals(scheduler));
+    movieInfoBlocking = new MovieInfoBlocking(properties);
+  }
+
+  @TearDown
+  public void tearDown() {
+    movieInfoBlocking.dispose();
+  }
+
+  @Benchmark
+  public Long burst() {
+    var blocking = Duration.ofMillis(blockingMillis);
+    return Flux.range(0, concurrentCalls)
+        .flatMap(call -> movieInfoBlocking.call(() -> {
+          Thread.sleep(blocking);
+          return call;
+        }), concurrentCalls)
+        .count()
+        .block();
+  }
+}
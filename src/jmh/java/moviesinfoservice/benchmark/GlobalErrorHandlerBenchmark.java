@@ -0,0 +1,44 @@
+package moviesinfoservice.benchmark;
+
+import moviesinfoservice.controller.MoviesInfoController;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.exceptionhandler.GlobalErrorHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+@State(Scope.Benchmark)
+public class GlobalErrorHandlerBenchmark {
+
+  private GlobalErrorHandler globalErrorHandler;
+  private WebExchangeBindException exception;
+
+  @Setup
+  public void setup() throws Exception {
+    //the handler logs every error with its stack trace, which would be most of what is measured
+    LoggingSystem.get(getClass().getClassLoader())
+        .setLogLevel(GlobalErrorHandler.class.getName(), LogLevel.OFF);
+    globalErrorHandler = new GlobalErrorHandler();
+    var movieInfo = new MovieInfo();
+    var bindingResult = new BeanPropertyBindingResult(movieInfo, "movieInfo");
+    bindingResult.addError(new FieldError("movieInfo", "name", "movieInfo.name must be present"));
+    bindingResult.addError(new FieldError("movieInfo", "year", "movieInfo.year must be a positive value"));
+    bindingResult.addError(new FieldError("movieInfo", "cast[0]", "movieInfo.cast must be present"));
+    var parameter = new MethodParameter(
+        MoviesInfoController.class.getMethod("addMovieInfo", MovieInfo.class), 0);
+    exception = new WebExchangeBindException(parameter, bindingResult);
+  }
+
+  @Benchmark
+  public ResponseEntity<String> handleBindError() {
+    return globalErrorHandler.handlerResquestBodyError(exception);
+  }
+}
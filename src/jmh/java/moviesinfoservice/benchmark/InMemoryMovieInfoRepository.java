@@ -0,0 +1,53 @@
+package moviesinfoservice.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.repository.MovieInfoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link MovieInfoRepository} stub backed by a sorted map, so the benchmarks measure the request
+ * path without Mongo. Only the methods used by MoviesInfoService are implemented.
+ */
+final class InMemoryMovieInfoRepository {
+
+  private InMemoryMovieInfoRepository() {
+  }
+
+  static MovieInfoRepository create(Iterable<MovieInfo> movieInfos) {
+    var store = new ConcurrentSkipListMap<String, MovieInfo>();
+    movieInfos.forEach(movieInfo -> store.put(movieInfo.getMovieInfoId(), movieInfo));
+    return (MovieInfoRepository) Proxy.newProxyInstance(MovieInfoRepository.class.getClassLoader(),
+        new Class<?>[]{MovieInfoRepository.class},
+        (proxy, method, args) -> switch (method.getName()) {
+          case "findById" -> Mono.justOrEmpty(store.get((String) args[0]));
+          case "findAll" -> Flux.fromIterable(store.values());
+          case "findAllById" -> Flux.fromIterable((Iterable<?>) args[0])
+              .mapNotNull(id -> store.get((String) id));
+          case "findPage" -> page(args[1] == null ? store : store.tailMap((String) args[1], false),
+              (Integer) args[0], (Integer) args[2]);
+          case "findByYear" -> Flux.fromIterable(store.values())
+              .filter(movieInfo -> movieInfo.getYear().equals(args[0]));
+          case "save" -> {
+            var movieInfo = (MovieInfo) args[0];
+            store.put(movieInfo.getMovieInfoId(), movieInfo);
+            yield Mono.just(movieInfo);
+          }
+          case "deleteById" -> Mono.fromRunnable(() -> store.remove((String) args[0]));
+          case "softDelete" -> Mono.fromSupplier(() -> store.remove((String) args[0]));
+          case "hashCode" -> System.identityHashCode(proxy);
+          case "equals" -> proxy == args[0];
+          case "toString" -> "InMemoryMovieInfoRepository";
+          default -> throw new UnsupportedOperationException(method.getName());
+        });
+  }
+
+  private static Flux<MovieInfo> page(Map<String, MovieInfo> store, Integer year, int size) {
+    return Flux.fromIterable(store.values())
+        .filter(movieInfo -> year == null || year.equals(movieInfo.getYear()))
+        .take(size);
+  }
+}
@@ -0,0 +1,100 @@
+package moviesinfoservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.util.List;
+import java.util.Map;
+import moviesinfoservice.codec.MovieInfoJsonDecoder;
+import moviesinfoservice.codec.MovieInfoJsonEncoder;
+import moviesinfoservice.domain.MovieInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.Decoder;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+/**
+ * The MovieInfo JSON codec against the Jackson codec of WebFlux, both writing into pooled Netty
+ * buffers like the server does. Run with the gc profiler (the default of the jmh task) to compare
+ * the bytes allocated per operation, gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+public class MovieInfoCodecBenchmark {
+
+  private static final ResolvableType MOVIE_INFO = ResolvableType.forClass(MovieInfo.class);
+  private static final ResolvableType MOVIE_INFO_LIST = ResolvableType.forClassWithGenerics(List.class, MovieInfo.class);
+
+  @Param({"jackson", "movieInfo"})
+  String codec;
+
+  @Param({"100", "1000"})
+  int count;
+
+  private NettyDataBufferFactory bufferFactory;
+  private Encoder<Object> encoder;
+  private Decoder<?> decoder;
+  private MovieInfo movieInfo;
+  private List<MovieInfo> movieInfos;
+  private byte[] movieInfoJson;
+
+  @Setup
+  public void setup() throws Exception {
+    //ISO dates like the Boot ObjectMapper
+    ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+    bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+    encoder = "jackson".equals(codec) ? new Jackson2JsonEncoder(objectMapper) : new MovieInfoJsonEncoder(64);
+    decoder = "jackson".equals(codec) ? new Jackson2JsonDecoder(objectMapper) : new MovieInfoJsonDecoder(objectMapper);
+    movieInfo = MovieInfoFixtures.movieInfo(1);
+    movieInfos = MovieInfoFixtures.movieInfos(count);
+    movieInfoJson = objectMapper.writeValueAsBytes(movieInfo);
+  }
+
+  @Benchmark
+  public int encodeOne() {
+    var buffer = encoder.encodeValue(movieInfo, bufferFactory, MOVIE_INFO, MediaType.APPLICATION_JSON, Map.of());
+    var size = buffer.readableByteCount();
+    DataBufferUtils.release(buffer);
+    return size;
+  }
+
+  @Benchmark
+  public int encodeList() {
+    var buffer = encoder.encodeValue(movieInfos, bufferFactory, MOVIE_INFO_LIST, MediaType.APPLICATION_JSON,
+        Map.of());
+    var size = buffer.readableByteCount();
+    DataBufferUtils.release(buffer);
+    return size;
+  }
+
+  //a Flux<MovieInfo> response body written as a JSON array
+  @Benchmark
+  public long encodeStream() {
+    return encoder.encode(Flux.fromIterable(movieInfos), bufferFactory, MOVIE_INFO, MediaType.APPLICATION_JSON,
+            Map.of())
+        .map(buffer -> {
+          var size = buffer.readableByteCount();
+          DataBufferUtils.release(buffer);
+          return (long) size;
+        })
+        .reduce(0L, Long::sum)
+        .block();
+  }
+
+  @Benchmark
+  public Object decodeOne() {
+    return decoder.decode(bufferFactory.wrap(movieInfoJson), MOVIE_INFO, MediaType.APPLICATION_JSON, Map.of());
+  }
+}
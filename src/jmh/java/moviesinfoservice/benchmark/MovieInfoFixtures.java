@@ -0,0 +1,22 @@
+package moviesinfoservice.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+import moviesinfoservice.domain.MovieInfo;
+
+final class MovieInfoFixtures {
+
+  private MovieInfoFixtures() {
+  }
+
+  static MovieInfo movieInfo(int i) {
+    return new MovieInfo(String.format("%024x", i), "Batman " + i, 1950 + i % 75,
+        List.of("Christian Bale", "Michael Caine", "Heath Ledger " + i),
+        LocalDate.of(1950 + i % 75, 1 + i % 12, 1 + i % 28));
+  }
+
+  static List<MovieInfo> movieInfos(int count) {
+    return IntStream.range(0, count).mapToObj(MovieInfoFixtures::movieInfo).toList();
+  }
+}
@@ -0,0 +1,68 @@
+package moviesinfoservice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import moviesinfoservice.domain.MovieInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@State(Scope.Benchmark)
+public class MovieInfoJsonBenchmark {
+
+  private static final TypeReference<List<MovieInfo>> MOVIE_INFO_LIST = new TypeReference<>() {
+  };
+
+  //same builder as the one used by the WebFlux codecs
+  private ObjectMapper objectMapper;
+  private MovieInfo movieInfo;
+  private byte[] movieInfoJson;
+
+  //the lists are in their own state so that only the list benchmarks run once per count
+  @State(Scope.Benchmark)
+  public static class MovieInfoList {
+
+    @Param({"1", "100", "1000"})
+    int count;
+
+    private List<MovieInfo> movieInfos;
+    private byte[] movieInfosJson;
+
+    @Setup
+    public void setup(MovieInfoJsonBenchmark benchmark) throws Exception {
+      movieInfos = MovieInfoFixtures.movieInfos(count);
+      movieInfosJson = benchmark.objectMapper.writeValueAsBytes(movieInfos);
+    }
+  }
+
+  @Setup
+  public void setup() throws Exception {
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    movieInfo = MovieInfoFixtures.movieInfo(1);
+    movieInfoJson = objectMapper.writeValueAsBytes(movieInfo);
+  }
+
+  @Benchmark
+  public byte[] serializeOne() throws Exception {
+    return objectMapper.writeValueAsBytes(movieInfo);
+  }
+
+  @Benchmark
+  public MovieInfo deserializeOne() throws Exception {
+    return objectMapper.readValue(movieInfoJson, MovieInfo.class);
+  }
+
+  @Benchmark
+  public byte[] serializeList(MovieInfoList list) throws Exception {
+    return objectMapper.writeValueAsBytes(list.movieInfos);
+  }
+
+  @Benchmark
+  public List<MovieInfo> deserializeList(MovieInfoList list) throws Exception {
+    return objectMapper.readValue(list.movieInfosJson, MOVIE_INFO_LIST);
+  }
+}
@@ -0,0 +1,38 @@
+package moviesinfoservice.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import moviesinfoservice.domain.MovieInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class MovieInfoValidationBenchmark {
+
+  private Validator validator;
+  private MovieInfo valid;
+  private MovieInfo invalid;
+
+  @Setup
+  public void setup() {
+    validator = Validation.buildDefaultValidatorFactory().getValidator();
+    valid = MovieInfoFixtures.movieInfo(1);
+    invalid = new MovieInfo(null, "", -2005, List.of(""), LocalDate.parse("2005-06-15"));
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<MovieInfo>> validateValid() {
+    return validator.validate(valid);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<MovieInfo>> validateInvalid() {
+    return validator.validate(invalid);
+  }
+}
@@ -0,0 +1,70 @@
+package moviesinfoservice.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import moviesinfoservice.domain.MovieInfo;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON against Smile for a list of movieInfos. Next to the throughput of both directions, the
+ * bytes encoded or decoded per second are reported as a secondary result, the payload size being
+ * their ratio.
+ */
+@State(Scope.Benchmark)
+public class MovieInfoWireFormatBenchmark {
+
+  private static final TypeReference<List<MovieInfo>> MOVIE_INFO_LIST = new TypeReference<>() {
+  };
+
+  @Param({"json", "smile"})
+  String format;
+
+  @Param({"100", "1000"})
+  int count;
+
+  private ObjectMapper objectMapper;
+  private List<MovieInfo> movieInfos;
+  private byte[] payload;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class Bytes {
+
+    public long bytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      bytes = 0;
+    }
+  }
+
+  @Setup
+  public void setup() throws Exception {
+    objectMapper = "smile".equals(format)
+        ? Jackson2ObjectMapperBuilder.smile().build()
+        : Jackson2ObjectMapperBuilder.json().build();
+    movieInfos = MovieInfoFixtures.movieInfos(count);
+    payload = objectMapper.writeValueAsBytes(movieInfos);
+  }
+
+  @Benchmark
+  public byte[] encode(Bytes counters) throws Exception {
+    var encoded = objectMapper.writeValueAsBytes(movieInfos);
+    counters.bytes += encoded.length;
+    return encoded;
+  }
+
+  @Benchmark
+  public List<MovieInfo> decode(Bytes counters) throws Exception {
+    counters.bytes += payload.length;
+    return objectMapper.readValue(payload, MOVIE_INFO_LIST);
+  }
+}
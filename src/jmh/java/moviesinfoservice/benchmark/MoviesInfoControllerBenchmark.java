@@ -0,0 +1,95 @@
+package moviesinfoservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.util.List;
+import moviesinfoservice.cache.MovieInfoCache;
+import moviesinfoservice.cache.MovieInfoYearCache;
+import moviesinfoservice.config.BatchLookupProperties;
+import moviesinfoservice.config.BulkIngestProperties;
+import moviesinfoservice.config.ChangeFeedProperties;
+import moviesinfoservice.config.ChangeFeedProperties.Source;
+import moviesinfoservice.config.CircuitBreakerProperties;
+import moviesinfoservice.config.HedgingProperties;
+import moviesinfoservice.config.MovieInfoCacheProperties;
+import moviesinfoservice.config.PaginationProperties;
+import moviesinfoservice.config.ReadRoutingProperties;
+import moviesinfoservice.config.StatisticsProperties;
+import moviesinfoservice.config.TimeoutProperties;
+import moviesinfoservice.config.YearCacheProperties;
+import moviesinfoservice.controller.MoviesInfoController;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.metrics.MovieInfoMetrics;
+import moviesinfoservice.resilience.MongoCircuitBreaker;
+import moviesinfoservice.resilience.MovieInfoResilience;
+import moviesinfoservice.service.MovieInfoBatchLoader;
+import moviesinfoservice.service.MovieInfoBulkService;
+import moviesinfoservice.service.MovieInfoChangeFeed;
+import moviesinfoservice.service.MovieInfoStatisticsService;
+import moviesinfoservice.service.MoviesInfoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Handler throughput of MoviesInfoController wired with the real service, cache and metrics on top
+ * of an in-memory repository.
+ */
+@State(Scope.Benchmark)
+public class MoviesInfoControllerBenchmark {
+
+  @Param({"10000"})
+  int catalogSize;
+
+  @Param({"100"})
+  int pageSize;
+
+  private MoviesInfoController moviesInfoController;
+  private String movieInfoId;
+  private int year;
+
+  @Setup
+  public void setup() {
+    var meterRegistry = new SimpleMeterRegistry();
+    var repository = InMemoryMovieInfoRepository.create(MovieInfoFixtures.movieInfos(catalogSize));
+    var metrics = new MovieInfoMetrics(meterRegistry);
+    var changeFeedProperties = new ChangeFeedProperties();
+    changeFeedProperties.setSource(Source.LOCAL);
+    var changeFeed = new MovieInfoChangeFeed(null, changeFeedProperties);
+    //not materialized by default, the statistics repository is never called
+    var statisticsService = new MovieInfoStatisticsService(null, new StatisticsProperties());
+    var batchLookupProperties = new BatchLookupProperties();
+    var cache = new MovieInfoCache(new MovieInfoCacheProperties(), new ReadRoutingProperties(), meterRegistry);
+    var yearCache = new MovieInfoYearCache(new YearCacheProperties(), meterRegistry);
+    var resilience = new MovieInfoResilience(new TimeoutProperties(), new HedgingProperties(),
+        new MongoCircuitBreaker(new CircuitBreakerProperties(), meterRegistry), meterRegistry);
+    var service = new MoviesInfoService(repository, cache, metrics, changeFeed,
+        statisticsService, new MovieInfoBatchLoader(repository, metrics, batchLookupProperties), resilience,
+        yearCache);
+    var bulkService = new MovieInfoBulkService(repository,
+        Validation.buildDefaultValidatorFactory().getValidator(), new BulkIngestProperties(), metrics,
+        changeFeed, statisticsService, cache, yearCache);
+    moviesInfoController = new MoviesInfoController(service, bulkService, new PaginationProperties(),
+        batchLookupProperties);
+    movieInfoId = MovieInfoFixtures.movieInfo(catalogSize / 2).getMovieInfoId();
+    year = MovieInfoFixtures.movieInfo(catalogSize / 2).getYear();
+  }
+
+  @Benchmark
+  public ResponseEntity<MovieInfo> getMovieInfosById() {
+    return moviesInfoController.getMovieInfosById(movieInfoId).block();
+  }
+
+  @Benchmark
+  public ResponseEntity<List<MovieInfo>> getAllMovieInfosPage() {
+    return moviesInfoController.getAllMovieInfos(null, pageSize, null, null).block();
+  }
+
+  @Benchmark
+  public ResponseEntity<List<MovieInfo>> getYearMovieInfosPage() {
+    return moviesInfoController.getAllMovieInfos(year, pageSize, null, null).block();
+  }
+}
@@ -0,0 +1,62 @@
+package moviesinfoservice.loadtest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import moviesinfoservice.domain.MovieInfo;
+
+/**
+ * Deterministic synthetic catalog: the movieInfo at a given index is the same for a given seed, so
+ * the catalog can be generated in parallel and workloads can pick ids without reading them back.
+ * Releases grow linearly over the years, cast sizes are long tailed around 6 and cast members
+ * follow a skewed popularity so that a few actors appear in many movies.
+ */
+final class CatalogGenerator {
+
+  static final int FIRST_YEAR = 1920;
+  static final int LAST_YEAR = 2024;
+  static final String[] WORDS = {"dark", "knight", "return", "night", "city", "love", "war", "last",
+      "star", "river", "ghost", "summer", "secret", "king", "road", "storm", "shadow", "empire", "dream",
+      "island", "fire", "winter", "heart", "silent", "hunter", "golden", "lost", "blue", "iron", "wild"};
+
+  private final long seed;
+  private final int actors;
+
+  CatalogGenerator(long seed, int catalogSize) {
+    this.seed = seed;
+    this.actors = Math.max(1_000, catalogSize / 20);
+  }
+
+  static String id(int index) {
+    return String.format("%024x", index);
+  }
+
+  MovieInfo movieInfo(int index) {
+    var random = new SplittableRandom(seed * 31 + index);
+    var year = year(random);
+    var name = capitalize(WORDS[random.nextInt(WORDS.length)]) + " " + WORDS[random.nextInt(WORDS.length)]
+        + " " + WORDS[random.nextInt(WORDS.length)] + " " + index;
+    var castSize = 1 + Math.min(29, (int) (-Math.log(1 - random.nextDouble()) * 5));
+    var cast = new ArrayList<String>(castSize);
+    for (int i = 0; i < castSize; i++) {
+      cast.add(actor(random));
+    }
+    var releaseDate = LocalDate.ofYearDay(year, 1 + random.nextInt(365));
+    return new MovieInfo(id(index), name, year, cast, releaseDate);
+  }
+
+  //density growing linearly with the year, recent years have the most releases
+  int year(SplittableRandom random) {
+    return FIRST_YEAR + (int) ((LAST_YEAR - FIRST_YEAR) * Math.sqrt(random.nextDouble()));
+  }
+
+  //cubing the uniform draw concentrates the picks on the low (popular) actor numbers
+  String actor(SplittableRandom random) {
+    var u = random.nextDouble();
+    return String.format("Actor %06d", (int) (actors * u * u * u));
+  }
+
+  private static String capitalize(String word) {
+    return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+  }
+}
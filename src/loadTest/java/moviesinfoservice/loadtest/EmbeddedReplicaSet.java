@@ -0,0 +1,90 @@
+package moviesinfoservice.loadtest;
+
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.flapdoodle.embed.mongo.config.MongodArguments;
+import de.flapdoodle.embed.mongo.config.Storage;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Local replica set of embedded mongods, one per member, to exercise the read routing to the
+ * secondaries. The first member is initiated with the whole configuration and waited for until it
+ * is the primary.
+ */
+final class EmbeddedReplicaSet implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(EmbeddedReplicaSet.class);
+  private static final String NAME = "rs0";
+  private static final Duration PRIMARY_TIMEOUT = Duration.ofSeconds(30);
+
+  private final List<TransitionWalker.ReachedState<RunningMongodProcess>> members;
+  private final List<String> addresses;
+
+  private EmbeddedReplicaSet(List<TransitionWalker.ReachedState<RunningMongodProcess>> members) {
+    this.members = members;
+    this.addresses = members.stream()
+        .map(member -> member.current().getServerAddress())
+        .map(address -> address.getHost() + ":" + address.getPort())
+        .toList();
+  }
+
+  static EmbeddedReplicaSet start(int memberCount) {
+    var members = new ArrayList<TransitionWalker.ReachedState<RunningMongodProcess>>();
+    for (int i = 0; i < memberCount; i++) {
+      //replica set members need the journal, which the embedded defaults turn off
+      members.add(Mongod.instance()
+          .withMongodArguments(Start.to(MongodArguments.class).initializedWith(MongodArguments.defaults()
+              .withUseNoJournal(false)
+              .withReplication(Storage.of(NAME, 0))))
+          .start(Version.Main.V6_0));
+    }
+    var replicaSet = new EmbeddedReplicaSet(members);
+    try {
+      replicaSet.initiate();
+    } catch (RuntimeException ex) {
+      replicaSet.close();
+      throw ex;
+    }
+    return replicaSet;
+  }
+
+  String connectionString(String database) {
+    return "mongodb://" + String.join(",", addresses) + "/" + database + "?replicaSet=" + NAME;
+  }
+
+  private void initiate() {
+    var configMembers = new ArrayList<Document>();
+    for (int i = 0; i < addresses.size(); i++) {
+      //the first member is preferred as primary so the seeding does not wait for an election later on
+      configMembers.add(new Document("_id", i).append("host", addresses.get(i)).append("priority", i == 0 ? 2 : 1));
+    }
+    try (var client = MongoClients.create("mongodb://" + addresses.get(0) + "/?directConnection=true")) {
+      var admin = client.getDatabase("admin");
+      Mono.from(admin.runCommand(new Document("replSetInitiate",
+              new Document("_id", NAME).append("members", configMembers))))
+          .block();
+      var primary = Mono.defer(() -> Mono.from(admin.runCommand(new Document("hello", 1))))
+          .filter(hello -> hello.getBoolean("isWritablePrimary", false))
+          .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(200)))
+          .timeout(PRIMARY_TIMEOUT)
+          .block();
+      log.info("Replica set {} initiated, primary {} of {}", NAME, primary.getString("me"),
+          String.join(", ", addresses));
+    }
+  }
+
+  @Override
+  public void close() {
+    members.forEach(TransitionWalker.ReachedState::close);
+  }
+}
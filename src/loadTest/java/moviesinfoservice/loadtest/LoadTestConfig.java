@@ -0,0 +1,59 @@
+package moviesinfoservice.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load test settings, read from the loadtest.* system properties (the loadTest Gradle task forwards
+ * the matching -P properties).
+ */
+record LoadTestConfig(
+    int catalogSize,
+    long seed,
+    int concurrency,
+    Duration warmup,
+    Duration duration,
+    Map<Operation, Integer> mix,
+    String mongoAddress,
+    int replicaSetMembers,
+    boolean compression,
+    String report) {
+
+  static LoadTestConfig fromSystemProperties() {
+    return new LoadTestConfig(
+        Integer.getInteger("loadtest.catalogSize", 1_000_000),
+        Long.getLong("loadtest.seed", 42L),
+        Integer.getInteger("loadtest.concurrency", 64),
+        Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 15L)),
+        Duration.ofSeconds(Long.getLong("loadtest.durationSeconds", 60L)),
+        parseMix(System.getProperty("loadtest.mix",
+            "byId:50,batch:10,page:10,year:10,search:5,autocomplete:5,statistics:2,patch:8")),
+        //host:port of a running mongod, an embedded one is started when empty
+        System.getProperty("loadtest.mongoAddress", ""),
+        //members of the embedded replica set, 0 or 1 starts a standalone mongod
+        Integer.getInteger("loadtest.replicaSetMembers", 0),
+        //gzip responses as in the prod profile, the client then asks for them with Accept-Encoding
+        Boolean.getBoolean("loadtest.compression"),
+        System.getProperty("loadtest.report", "build/results/loadtest/report.json"));
+  }
+
+  //"byId:50,page:10" weights, operations left out are not run
+  static Map<Operation, Integer> parseMix(String mix) {
+    var weights = new EnumMap<Operation, Integer>(Operation.class);
+    for (var entry : mix.split(",")) {
+      var parts = entry.trim().split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("loadtest.mix entries must be operation:weight, got " + entry);
+      }
+      var weight = Integer.parseInt(parts[1].trim());
+      if (weight > 0) {
+        weights.put(Operation.of(parts[0].trim()), weight);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("loadtest.mix must give a positive weight to one operation");
+    }
+    return weights;
+  }
+}
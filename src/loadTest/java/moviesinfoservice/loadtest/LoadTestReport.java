@@ -0,0 +1,51 @@
+package moviesinfoservice.loadtest;
+
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Result of one measured run, written as JSON so that runs can be compared with the recorded
+ * baseline by the loadTestCheck task.
+ */
+record LoadTestReport(
+    String timestamp,
+    String javaVersion,
+    int availableProcessors,
+    int catalogSize,
+    long seed,
+    int concurrency,
+    long durationSeconds,
+    Map<String, Integer> mix,
+    //the load generator runs in the same JVM, so this includes the client allocations
+    double allocationRateMbPerSecond,
+    boolean compression,
+    //bytes read from the sockets, headers included and compressed when compression is on
+    double receivedMbPerSecond,
+    double receivedBytesPerRequest,
+    List<OperationResult> operations) {
+
+  record OperationResult(
+      String operation,
+      long requests,
+      long errors,
+      double throughput,
+      double p50Ms,
+      double p99Ms,
+      double p999Ms,
+      double maxMs) {
+
+    static OperationResult of(String operation, Histogram latencies, long errors, double seconds) {
+      return new OperationResult(operation, latencies.getTotalCount(), errors,
+          latencies.getTotalCount() / seconds,
+          millis(latencies.getValueAtPercentile(50)),
+          millis(latencies.getValueAtPercentile(99)),
+          millis(latencies.getValueAtPercentile(99.9)),
+          millis(latencies.getMaxValue()));
+    }
+
+    private static double millis(long nanos) {
+      return nanos / 1_000_000.0;
+    }
+  }
+}
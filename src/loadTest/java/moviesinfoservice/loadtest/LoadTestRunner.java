@@ -0,0 +1,156 @@
+package moviesinfoservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import moviesinfoservice.MoviesInfoServiceApplication;
+import moviesinfoservice.loadtest.LoadTestReport.OperationResult;
+import moviesinfoservice.repository.MovieInfoRepository;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+/**
+ * Seeds a synthetic catalog into Mongo (embedded unless loadtest.mongoAddress is given, a local
+ * replica set with read routing when loadtest.replicaSetMembers is above 1), starts the
+ * service on a random port, runs a warm-up then a measured mixed workload over HTTP and writes the
+ * report. A catalog of the requested size left by a previous run against the same mongod is reused.
+ */
+public final class LoadTestRunner {
+
+  private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+  private static final int SEED_BATCH_SIZE = 5_000;
+  private static final String DATABASE = "loadtest";
+
+  private LoadTestRunner() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    var config = LoadTestConfig.fromSystemProperties();
+    TransitionWalker.ReachedState<RunningMongodProcess> mongod = null;
+    EmbeddedReplicaSet replicaSet = null;
+    var mongoUri = "mongodb://" + config.mongoAddress() + "/" + DATABASE;
+    if (config.mongoAddress().isBlank() && config.replicaSetMembers() > 1) {
+      replicaSet = EmbeddedReplicaSet.start(config.replicaSetMembers());
+      mongoUri = replicaSet.connectionString(DATABASE);
+    } else if (config.mongoAddress().isBlank()) {
+      //the mongod binary is downloaded on the first run only, later runs are offline
+      mongod = Mongod.instance().start(Version.Main.V6_0);
+      var serverAddress = mongod.current().getServerAddress();
+      mongoUri = "mongodb://" + serverAddress.getHost() + ":" + serverAddress.getPort() + "/" + DATABASE;
+    }
+    try (var context = startService(mongoUri, replicaSet != null, config.compression())) {
+      var generator = new CatalogGenerator(config.seed(), config.catalogSize());
+      seed(context.getBean(MovieInfoRepository.class), generator, config.catalogSize());
+      var port = context.getEnvironment().getProperty("local.server.port");
+      var workload = new Workload(config, generator, "http://localhost:" + port);
+
+      log.info("Warming up for {}", config.warmup());
+      workload.run(config.warmup());
+      log.info("Measuring for {} with {} virtual users", config.duration(), config.concurrency());
+      var allocatedBefore = allocatedBytes();
+      var start = System.nanoTime();
+      workload.run(config.duration());
+      var seconds = (System.nanoTime() - start) / 1e9;
+      var allocated = allocatedBytes() - allocatedBefore;
+
+      var report = report(config, workload, seconds, allocated / seconds / (1024 * 1024));
+      var reportFile = new File(config.report());
+      reportFile.getParentFile().mkdirs();
+      new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+      report.operations().forEach(result -> log.info("{}", result));
+      log.info("Received {} MB/s, {} bytes per request with compression {}",
+          String.format("%.1f", report.receivedMbPerSecond()),
+          String.format("%.0f", report.receivedBytesPerRequest()), config.compression() ? "on" : "off");
+      log.info("Allocation rate {} MB/s, report written to {}",
+          String.format("%.1f", report.allocationRateMbPerSecond()), reportFile);
+    } finally {
+      if (mongod != null) {
+        mongod.close();
+      }
+      if (replicaSet != null) {
+        replicaSet.close();
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext startService(String mongoUri, boolean readRouting,
+      boolean compression) {
+    //command line arguments, so that they win over application.yml. The loadtest profile replaces the local one,
+    //whose mongo host and port boot refuses to combine with a uri
+    return new SpringApplicationBuilder(MoviesInfoServiceApplication.class)
+        .run(
+            "--spring.profiles.active=loadtest",
+            "--spring.data.mongodb.uri=" + mongoUri,
+            "--moviesinfo.read-routing.enabled=" + readRouting,
+            //same settings as the prod profile
+            "--server.compression.enabled=" + compression,
+            "--server.compression.min-response-size=2KB",
+            "--server.compression.mime-types=application/json,application/x-ndjson,text/event-stream,text/plain,text/csv",
+            "--server.port=0",
+            //change streams are not needed by the workload
+            "--moviesinfo.changes.source=local",
+            "--moviesinfo.rate-limit.enabled=false",
+            "--moviesinfo.tracing.enabled=false",
+            "--logging.level.root=warn",
+            "--logging.level.moviesinfoservice.loadtest=info");
+  }
+
+  private static void seed(MovieInfoRepository repository, CatalogGenerator generator, int catalogSize) {
+    if (repository.count().block() == catalogSize) {
+      log.info("Reusing the catalog of {} movieInfos", catalogSize);
+      return;
+    }
+    log.info("Seeding {} movieInfos", catalogSize);
+    repository.deleteAll().block();
+    Flux.range(0, catalogSize)
+        .map(generator::movieInfo)
+        .buffer(SEED_BATCH_SIZE)
+        .flatMapSequential(batch -> repository.insert(batch).count(), 4)
+        .index()
+        .filter(inserted -> (inserted.getT1() + 1) * SEED_BATCH_SIZE % 100_000 == 0)
+        .doOnNext(inserted -> log.info("Seeded {} movieInfos", (inserted.getT1() + 1) * SEED_BATCH_SIZE))
+        .blockLast();
+  }
+
+  private static LoadTestReport report(LoadTestConfig config, Workload workload, double seconds,
+      double allocationRate) {
+    var operations = new ArrayList<OperationResult>();
+    var total = new Histogram(3);
+    long totalErrors = 0;
+    for (var entry : workload.latencies().entrySet()) {
+      var errors = workload.errors().get(entry.getKey()).sum();
+      operations.add(OperationResult.of(entry.getKey().key(), entry.getValue(), errors, seconds));
+      total.add(entry.getValue());
+      totalErrors += errors;
+    }
+    operations.add(OperationResult.of("total", total, totalErrors, seconds));
+    var mix = new LinkedHashMap<String, Integer>();
+    config.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+    return new LoadTestReport(Instant.now().toString(), System.getProperty("java.version"),
+        Runtime.getRuntime().availableProcessors(), config.catalogSize(), config.seed(), config.concurrency(),
+        config.duration().toSeconds(), mix, allocationRate, config.compression(),
+        workload.bytesReceived().sum() / seconds / (1024 * 1024),
+        total.getTotalCount() > 0 ? (double) workload.bytesReceived().sum() / total.getTotalCount() : 0,
+        operations);
+  }
+
+  //threads that die during the run take their count with them, the event loops and workers do not
+  private static long allocatedBytes() {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+        .filter(bytes -> bytes > 0)
+        .sum();
+  }
+}
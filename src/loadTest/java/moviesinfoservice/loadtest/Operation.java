@@ -0,0 +1,34 @@
+package moviesinfoservice.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The requests of the mixed workload, named as in the loadtest.mix property.
+ */
+enum Operation {
+  BY_ID("byId"),
+  BATCH("batch"),
+  PAGE("page"),
+  YEAR("year"),
+  SEARCH("search"),
+  AUTOCOMPLETE("autocomplete"),
+  STATISTICS("statistics"),
+  PATCH("patch");
+
+  private final String key;
+
+  Operation(String key) {
+    this.key = key;
+  }
+
+  String key() {
+    return key;
+  }
+
+  static Operation of(String key) {
+    return Arrays.stream(values())
+        .filter(operation -> operation.key.equals(key))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown loadtest operation " + key));
+  }
+}
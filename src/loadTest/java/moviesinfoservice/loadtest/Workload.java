@@ -0,0 +1,174 @@
+package moviesinfoservice.loadtest;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClient.RequestHeadersSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Closed loop mixed workload: each virtual user sends one request at a time, picking the operation
+ * by weight and its parameters from its own seeded random, until the run ends. Latencies are
+ * recorded per operation from the request start to the last byte of the body, the bytes received
+ * are counted on the sockets, before any decompression.
+ */
+final class Workload {
+
+  private static final String[] STATISTICS = {"years", "decades", "cast", "release-months"};
+
+  private final LoadTestConfig config;
+  private final CatalogGenerator generator;
+  private final WebClient webClient;
+  private final Operation[] weightedOperations;
+  private final Map<Operation, ConcurrentHistogram> latencies = new EnumMap<>(Operation.class);
+  private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+  private final LongAdder bytesReceived = new LongAdder();
+  private int runs;
+
+  Workload(LoadTestConfig config, CatalogGenerator generator, String baseUrl) {
+    this.config = config;
+    this.generator = generator;
+    //compress sends Accept-Encoding: gzip and inflates the responses. The counter is the first handler of the
+    //pipeline, so it sees the bytes as they come off the socket
+    var httpClient = HttpClient.create()
+        .compress(config.compression())
+        .doOnChannelInit((observer, channel, remoteAddress) -> channel.pipeline().addFirst(new ByteCounter()));
+    this.webClient = WebClient.builder()
+        .baseUrl(baseUrl)
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+    var operations = new ArrayList<Operation>();
+    config.mix().forEach((operation, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        operations.add(operation);
+      }
+      latencies.put(operation, new ConcurrentHistogram(3));
+      errors.put(operation, new LongAdder());
+    });
+    this.weightedOperations = operations.toArray(Operation[]::new);
+  }
+
+  Map<Operation, ConcurrentHistogram> latencies() {
+    return latencies;
+  }
+
+  Map<Operation, LongAdder> errors() {
+    return errors;
+  }
+
+  LongAdder bytesReceived() {
+    return bytesReceived;
+  }
+
+  //the recorded latencies, errors and bytes are reset, so a warm-up run can be thrown away
+  void run(Duration duration) {
+    latencies.values().forEach(ConcurrentHistogram::reset);
+    errors.values().forEach(LongAdder::reset);
+    bytesReceived.reset();
+    var run = runs++;
+    var deadline = System.nanoTime() + duration.toNanos();
+    Flux.range(0, config.concurrency())
+        .flatMap(user -> {
+          var random = new SplittableRandom(config.seed() * 1_000_003 + run * 10_007L + user);
+          return Mono.defer(() -> execute(weightedOperations[random.nextInt(weightedOperations.length)], random))
+              .repeat(() -> System.nanoTime() < deadline);
+        }, config.concurrency())
+        .blockLast();
+  }
+
+  private Mono<Void> execute(Operation operation, SplittableRandom random) {
+    var start = System.nanoTime();
+    return request(operation, random)
+        .exchangeToMono(response -> response.releaseBody()
+            .thenReturn(response.statusCode().is2xxSuccessful()))
+        .onErrorReturn(false)
+        .doOnNext(succeeded -> {
+          latencies.get(operation).recordValue(System.nanoTime() - start);
+          if (!succeeded) {
+            errors.get(operation).increment();
+          }
+        })
+        .then();
+  }
+
+  private RequestHeadersSpec<?> request(Operation operation, SplittableRandom random) {
+    return switch (operation) {
+      case BY_ID -> webClient.get().uri("/v1/moviesinfo/{id}", hotId(random));
+      case BATCH -> {
+        var ids = new ArrayList<String>(50);
+        for (int i = 0; i < 50; i++) {
+          ids.add(hotId(random));
+        }
+        yield webClient.get().uri(uri -> uri.path("/v1/moviesinfo/batch")
+            .queryParam("ids", String.join(",", ids)).build());
+      }
+      case PAGE -> webClient.get().uri(uri -> uri.path("/v1/moviesinfo")
+          .queryParam("limit", 100)
+          .queryParam("after", cursor(CatalogGenerator.id(random.nextInt(config.catalogSize()))))
+          .build());
+      case YEAR -> webClient.get().uri(uri -> uri.path("/v1/moviesinfo")
+          .queryParam("year", generator.year(random))
+          .queryParam("limit", 100)
+          .build());
+      case SEARCH -> webClient.get().uri(uri -> uri.path("/v1/moviesinfo/search")
+          .queryParam("q", word(random))
+          .queryParam("limit", 20)
+          .build());
+      case AUTOCOMPLETE -> {
+        var word = word(random);
+        yield webClient.get().uri(uri -> uri.path("/v1/moviesinfo/autocomplete")
+            .queryParam("prefix", Character.toUpperCase(word.charAt(0)) + word.substring(1) + " "
+                + word(random).substring(0, 2))
+            .build());
+      }
+      case STATISTICS -> webClient.get()
+          .uri("/v1/moviesinfo/statistics/{statistic}", STATISTICS[random.nextInt(STATISTICS.length)]);
+      case PATCH -> webClient.patch().uri("/v1/moviesinfo/{id}", hotId(random))
+          .contentType(MediaType.APPLICATION_JSON)
+          .bodyValue(Map.of("cast", List.of(generator.actor(random), generator.actor(random))));
+    };
+  }
+
+  @ChannelHandler.Sharable
+  private final class ByteCounter extends ChannelInboundHandlerAdapter {
+
+    @Override
+    public void channelRead(ChannelHandlerContext context, Object message) {
+      if (message instanceof ByteBuf buffer) {
+        bytesReceived.add(buffer.readableBytes());
+      }
+      context.fireChannelRead(message);
+    }
+  }
+
+  //squaring the uniform draw makes the low indexes hot, as a few titles get most of the traffic
+  private String hotId(SplittableRandom random) {
+    var u = random.nextDouble();
+    return CatalogGenerator.id((int) (config.catalogSize() * u * u));
+  }
+
+  private static String word(SplittableRandom random) {
+    return CatalogGenerator.WORDS[random.nextInt(CatalogGenerator.WORDS.length)];
+  }
+
+  //same encoding as the X-Next-Cursor header of the service
+  private static String cursor(String movieInfoId) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(movieInfoId.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -2,8 +2,12 @@ package moviesinfoservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.data.mongodb.config.EnableReactiveMongoAuditing;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableReactiveMongoAuditing
 public class MoviesInfoServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,59 @@
+package moviesinfoservice.blocking;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import moviesinfoservice.config.BlockingProperties;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Runs blocking calls (JDBC drivers, file reads, synchronous clients) off the Netty event loops.
+ * With moviesinfo.blocking.virtual-threads each call gets its own virtual thread, which releases its
+ * carrier thread while blocked, so thousands of calls can wait at once where boundedElastic caps
+ * them at 10 threads per core and queues the rest. A call blocking inside a synchronized block
+ * still pins its carrier, -Djdk.tracePinnedThreads=short reports where.
+ */
+@Component
+public class MovieInfoBlocking {
+
+  private final Scheduler scheduler;
+  private final boolean virtualThreads;
+
+  public MovieInfoBlocking(BlockingProperties properties) {
+    this.virtualThreads = properties.isVirtualThreads();
+    this.scheduler = virtualThreads
+        ? virtualThreadScheduler(properties.getThreadNamePrefix())
+        : Schedulers.boundedElastic();
+  }
+
+  //a thread per task and no pool, the scheduler does not support delayed or periodic tasks
+  public static Scheduler virtualThreadScheduler(String threadNamePrefix) {
+    var threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+    return Schedulers.fromExecutorService(Executors.newThreadPerTaskExecutor(threadFactory), "virtualThreads");
+  }
+
+  //the call runs when the Mono is subscribed, its result is emitted from the thread that ran it
+  public <T> Mono<T> call(Callable<T> blockingCall) {
+    return Mono.fromCallable(blockingCall).subscribeOn(scheduler);
+  }
+
+  public Mono<Void> run(Runnable blockingCall) {
+    return Mono.<Void>fromRunnable(blockingCall).subscribeOn(scheduler);
+  }
+
+  //for the operators taking a Scheduler, publishOn() of a Flux pulling from a blocking source for instance
+  public Scheduler scheduler() {
+    return scheduler;
+  }
+
+  //boundedElastic is shared with the rest of the application and left running
+  @PreDestroy
+  public void dispose() {
+    if (virtualThreads) {
+      scheduler.dispose();
+    }
+  }
+}
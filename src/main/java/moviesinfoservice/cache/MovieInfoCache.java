@@ -0,0 +1,116 @@
+package moviesinfoservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import moviesinfoservice.config.MovieInfoCacheProperties;
+import moviesinfoservice.config.ReadRoutingProperties;
+import moviesinfoservice.domain.MovieInfo;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-through cache of movieInfos by id. Concurrent misses for the same id share one in-flight
+ * load, and a load that completes empty (not found) is not cached. A load that may have read the
+ * version before a write of its id is handed to its callers but not kept: one still running when
+ * the id is invalidated, or one started within the replica lag allowance after that. A load runs in
+ * the Reactor context of the caller that started it, deadline included: the callers joining it share
+ * its outcome, a failed load is not kept and the next lookup starts a new one.
+ */
+@Component
+public class MovieInfoCache {
+
+  //invalidation times are kept per stripe of ids, a collision only costs a load that is not cached
+  private static final int STRIPES = 4096;
+
+  private final AsyncCache<String, MovieInfo> cache;
+  private final AtomicLongArray invalidatedAt = new AtomicLongArray(STRIPES);
+  private final long replicaLagNanos;
+
+  public MovieInfoCache(MovieInfoCacheProperties properties, ReadRoutingProperties readRoutingProperties,
+      MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(properties.getMaximumSize())
+        .expireAfterWrite(properties.getExpireAfterWrite())
+        .recordStats()
+        .buildAsync();
+    //the loads read from the secondaries when routing is enabled, which may not have replicated a write yet
+    this.replicaLagNanos = readRoutingProperties.isEnabled()
+        ? readRoutingProperties.getMaxStaleness().toNanos()
+        : Duration.ZERO.toNanos();
+    new CaffeineCacheMetrics<>(cache.synchronous(), "movieInfo", Tags.empty()).bindTo(meterRegistry);
+  }
+
+  public Mono<MovieInfo> get(String id, Function<String, Mono<MovieInfo>> loader) {
+    //copy() so that a cancelled subscriber does not cancel the load shared with the other ones. toFuture()
+    //subscribes with an empty context, the caller's is written back for the routing and the resilience
+    return Mono.deferContextual(context -> Mono.fromFuture(cache.get(id, (key, executor) -> {
+      var loadStart = System.nanoTime();
+      var load = loader.apply(key).contextWrite(context).toFuture();
+      load.whenCompleteAsync((movieInfo, ex) -> dropIfStale(key, movieInfo, loadStart), executor);
+      return load;
+    }).copy()));
+  }
+
+  //the ids missing from the cache are loaded together, ids that are not found are left out of the map
+  public Mono<Map<String, MovieInfo>> getAll(Collection<String> ids,
+      Function<Set<String>, Flux<MovieInfo>> loader) {
+    return Mono.deferContextual(context -> Mono.fromFuture(cache.getAll(ids, (keys, executor) -> {
+      var loadStart = System.nanoTime();
+      var load = loader.apply(Set.copyOf(keys))
+          .collectMap(MovieInfo::getMovieInfoId)
+          .contextWrite(context)
+          .toFuture();
+      load.whenCompleteAsync((found, ex) -> {
+        if (found != null) {
+          found.forEach((key, movieInfo) -> dropIfStale(key, movieInfo, loadStart));
+        }
+      }, executor);
+      return load;
+    }).copy()));
+  }
+
+  public void invalidate(String id) {
+    if (id != null) {
+      //0 stands for never invalidated
+      var now = System.nanoTime();
+      invalidatedAt.set(stripe(id), now == 0 ? 1 : now);
+      cache.synchronous().invalidate(id);
+    }
+  }
+
+  public MovieInfoCacheStats stats() {
+    var stats = cache.synchronous().stats();
+    return new MovieInfoCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+        cache.synchronous().estimatedSize());
+  }
+
+  //runs on the cache executor, after the load was put in the map: removing it from within the mapping
+  //function would be a recursive update
+  private void dropIfStale(String id, MovieInfo loaded, long loadStart) {
+    if (loaded == null || isCacheable(id, loadStart)) {
+      return;
+    }
+    //only the entry holding this load, a later load of the id may already have replaced it
+    cache.asMap().computeIfPresent(id, (key, future) ->
+        future.isDone() && !future.isCompletedExceptionally() && future.join() == loaded ? null : future);
+  }
+
+  private boolean isCacheable(String id, long loadStart) {
+    var invalidated = invalidatedAt.get(stripe(id));
+    return invalidated == 0 || invalidated - loadStart < -replicaLagNanos;
+  }
+
+  private static int stripe(String id) {
+    return Math.floorMod(id.hashCode(), STRIPES);
+  }
+}
@@ -0,0 +1,5 @@
+package moviesinfoservice.cache;
+
+public record MovieInfoCacheStats(long hitCount, long missCount, long evictionCount, long size) {
+
+}
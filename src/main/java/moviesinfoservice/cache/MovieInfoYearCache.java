@@ -0,0 +1,123 @@
+package moviesinfoservice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import moviesinfoservice.config.YearCacheProperties;
+import moviesinfoservice.domain.MovieInfo;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Near-cache of the movieInfos of a year. The writes patch the cached snapshots in place of
+ * invalidating them, the local ones as they complete and the ones of the other instances as they
+ * come from the change feed. The snapshots are evicted on their estimated heap size. Requests are
+ * counted per year for the startup warm-up.
+ */
+@Component
+public class MovieInfoYearCache {
+
+  private final AsyncCache<Integer, MovieInfoYearSnapshot> cache;
+  private final Map<Integer, LongAdder> requestCounts = new ConcurrentHashMap<>();
+  private final boolean enabled;
+
+  public MovieInfoYearCache(YearCacheProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.isEnabled();
+    //a load in flight weighs nothing, the snapshot is weighed once it completes
+    this.cache = Caffeine.newBuilder()
+        .maximumWeight(properties.getMaximumMemory().toBytes())
+        .weigher((Integer year, MovieInfoYearSnapshot snapshot) ->
+            (int) Math.min(Integer.MAX_VALUE, snapshot.estimatedBytes()))
+        .expireAfterWrite(properties.getExpireAfterWrite())
+        .recordStats()
+        .buildAsync();
+    new CaffeineCacheMetrics<>(cache.synchronous(), "movieInfoYear", Tags.empty()).bindTo(meterRegistry);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Mono<MovieInfoYearSnapshot> get(Integer year, Function<Integer, Mono<MovieInfoYearSnapshot>> loader) {
+    requestCounts.computeIfAbsent(year, key -> new LongAdder()).increment();
+    return preload(year, loader);
+  }
+
+  //same as get() without counting a request
+  public Mono<MovieInfoYearSnapshot> preload(Integer year, Function<Integer, Mono<MovieInfoYearSnapshot>> loader) {
+    //copy() so that a cancelled subscriber does not cancel the load shared with the other ones. The load runs in the
+    //context of the caller starting it, deadline included, like the loads of MovieInfoCache
+    return Mono.deferContextual(context -> Mono.fromFuture(
+        cache.get(year, (key, executor) -> loader.apply(key).contextWrite(context).toFuture()).copy()));
+  }
+
+  //moves a write into the cached snapshots: out of the year it had, into the year it has now
+  public void apply(MovieInfo before, MovieInfo after) {
+    if (before != null && (after == null || !Objects.equals(before.getYear(), after.getYear()))) {
+      patch(before.getYear(), snapshot -> snapshot.without(before.getMovieInfoId()));
+    }
+    if (after != null) {
+      patch(after.getYear(), snapshot -> snapshot.with(after));
+    }
+  }
+
+  //a change known by its outcome only (change feed), after is null for a delete. The year the movieInfo left is
+  //unknown, so it is looked for in every cached year. The loads in flight are only dropped for the year it has now,
+  //dropping them all on every change of the cluster would keep the cache from filling
+  public void applyChange(String movieInfoId, MovieInfo after) {
+    var year = after != null ? after.getYear() : null;
+    cache.asMap().forEach((cachedYear, future) -> {
+      if (!cachedYear.equals(year) && future.isDone() && !future.isCompletedExceptionally()
+          && future.join().contains(movieInfoId)) {
+        patch(cachedYear, snapshot -> snapshot.without(movieInfoId));
+      }
+    });
+    if (after != null) {
+      patch(year, snapshot -> snapshot.with(after));
+    }
+  }
+
+  //request counts since the previous call
+  public Map<Integer, Long> drainRequestCounts() {
+    var counts = new HashMap<Integer, Long>();
+    requestCounts.forEach((year, count) -> {
+      var sum = count.sumThenReset();
+      if (sum > 0) {
+        counts.put(year, sum);
+      }
+    });
+    return counts;
+  }
+
+  public void invalidateAll() {
+    cache.synchronous().invalidateAll();
+  }
+
+  public MovieInfoCacheStats stats() {
+    var stats = cache.synchronous().stats();
+    return new MovieInfoCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+        cache.synchronous().estimatedSize());
+  }
+
+  private void patch(Integer year, UnaryOperator<MovieInfoYearSnapshot> change) {
+    if (year == null) {
+      return;
+    }
+    //a load still in flight may have read the collection before the write, it is dropped rather than patched.
+    //A year that is not cached is left alone, its next load reads the write
+    cache.asMap().computeIfPresent(year, (key, future) -> {
+      var snapshot = future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+      return snapshot == null ? null : CompletableFuture.completedFuture(change.apply(snapshot));
+    });
+  }
+}
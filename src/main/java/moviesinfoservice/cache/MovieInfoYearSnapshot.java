@@ -0,0 +1,144 @@
+package moviesinfoservice.cache;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoIds;
+
+/**
+ * Immutable movieInfos of one year, sorted by movieInfoId in the {@link MovieInfoIds#ORDER} of the
+ * keyset pages. A write produces a new snapshot sharing the unchanged movieInfos, the ones held are
+ * never modified.
+ */
+public final class MovieInfoYearSnapshot {
+
+  private final int year;
+  private final MovieInfo[] movieInfos;
+  private final long estimatedBytes;
+
+  private MovieInfoYearSnapshot(int year, MovieInfo[] movieInfos, long estimatedBytes) {
+    this.year = year;
+    this.movieInfos = movieInfos;
+    this.estimatedBytes = estimatedBytes;
+  }
+
+  public static MovieInfoYearSnapshot of(int year, Collection<MovieInfo> movieInfos) {
+    var sorted = movieInfos.toArray(MovieInfo[]::new);
+    Arrays.sort(sorted, Comparator.comparing(MovieInfo::getMovieInfoId, MovieInfoIds.ORDER));
+    var bytes = 16L + 4L * sorted.length;
+    for (var movieInfo : sorted) {
+      bytes += estimateBytes(movieInfo);
+    }
+    return new MovieInfoYearSnapshot(year, sorted, bytes);
+  }
+
+  public int year() {
+    return year;
+  }
+
+  public int size() {
+    return movieInfos.length;
+  }
+
+  public long estimatedBytes() {
+    return estimatedBytes;
+  }
+
+  public List<MovieInfo> movieInfos() {
+    return Collections.unmodifiableList(Arrays.asList(movieInfos));
+  }
+
+  public boolean contains(String movieInfoId) {
+    return indexOf(movieInfoId) >= 0;
+  }
+
+  //the movieInfos a findPage(year, after, limit) query returns
+  public List<MovieInfo> page(String afterMovieInfoId, int limit) {
+    var from = 0;
+    if (afterMovieInfoId != null) {
+      var index = indexOf(afterMovieInfoId);
+      from = index >= 0 ? index + 1 : -index - 1;
+    }
+    var to = (int) Math.min(movieInfos.length, (long) from + limit);
+    return movieInfos().subList(from, to);
+  }
+
+  //inserts or replaces the movieInfo, unless the snapshot already holds a newer version of it
+  public MovieInfoYearSnapshot with(MovieInfo movieInfo) {
+    var copy = copyOf(movieInfo);
+    var index = indexOf(copy.getMovieInfoId());
+    if (index >= 0) {
+      var current = movieInfos[index];
+      if (current.getVersion() != null && copy.getVersion() != null && current.getVersion() > copy.getVersion()) {
+        return this;
+      }
+      var replaced = movieInfos.clone();
+      replaced[index] = copy;
+      return new MovieInfoYearSnapshot(year, replaced,
+          estimatedBytes - estimateBytes(current) + estimateBytes(copy));
+    }
+    var at = -index - 1;
+    var inserted = new MovieInfo[movieInfos.length + 1];
+    System.arraycopy(movieInfos, 0, inserted, 0, at);
+    inserted[at] = copy;
+    System.arraycopy(movieInfos, at, inserted, at + 1, movieInfos.length - at);
+    return new MovieInfoYearSnapshot(year, inserted, estimatedBytes + 4 + estimateBytes(copy));
+  }
+
+  public MovieInfoYearSnapshot without(String movieInfoId) {
+    var index = indexOf(movieInfoId);
+    if (index < 0) {
+      return this;
+    }
+    var removed = new MovieInfo[movieInfos.length - 1];
+    System.arraycopy(movieInfos, 0, removed, 0, index);
+    System.arraycopy(movieInfos, index + 1, removed, index, movieInfos.length - index - 1);
+    return new MovieInfoYearSnapshot(year, removed, estimatedBytes - 4 - estimateBytes(movieInfos[index]));
+  }
+
+  //binary search on the ids, a missing id gives -(insertion point) - 1 like Arrays.binarySearch()
+  private int indexOf(String movieInfoId) {
+    var low = 0;
+    var high = movieInfos.length - 1;
+    while (low <= high) {
+      var middle = (low + high) >>> 1;
+      var comparison = MovieInfoIds.ORDER.compare(movieInfos[middle].getMovieInfoId(), movieInfoId);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  //the caller keeps the instance it wrote, the snapshot gets its own
+  private static MovieInfo copyOf(MovieInfo movieInfo) {
+    return new MovieInfo(movieInfo.getMovieInfoId(), movieInfo.getName(), movieInfo.getYear(),
+        movieInfo.getCast(), movieInfo.getRelease_date(), movieInfo.getVersion(), movieInfo.getLastModified(),
+        null);
+  }
+
+  //shallow heap size with compressed oops and compact strings: headers, fields, boxed values and string bytes
+  private static long estimateBytes(MovieInfo movieInfo) {
+    var bytes = 40L + 16 + 24 + 24 + 16;//movieInfo, Integer year, LocalDate, Instant, Long version
+    bytes += estimateBytes(movieInfo.getMovieInfoId()) + estimateBytes(movieInfo.getName());
+    var cast = movieInfo.getCast();
+    if (cast != null) {
+      bytes += 40 + 4L * cast.size();
+      for (var member : cast) {
+        bytes += estimateBytes(member);
+      }
+    }
+    return bytes;
+  }
+
+  private static long estimateBytes(String value) {
+    return value == null ? 0 : 40 + value.length();
+  }
+}
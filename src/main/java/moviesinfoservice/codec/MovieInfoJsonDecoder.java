@@ -0,0 +1,187 @@
+package moviesinfoservice.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import moviesinfoservice.domain.MovieInfo;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+
+/**
+ * JSON decoder dedicated to a single MovieInfo body: the joined buffer is read by the Jackson
+ * streaming parser and the fields are set from a switch on their name, without the bean
+ * deserializer. Unknown fields are skipped like with the Boot ObjectMapper. A stream of movieInfos
+ * (the bulk NDJSON or JSON array) still goes through the Jackson decoder, which tokenizes the
+ * elements as they arrive.
+ */
+public class MovieInfoJsonDecoder extends AbstractDataBufferDecoder<MovieInfo> {
+
+  private final JsonFactory jsonFactory;
+  private final Jackson2JsonDecoder streamDecoder;
+
+  public MovieInfoJsonDecoder(ObjectMapper objectMapper) {
+    super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+    this.jsonFactory = objectMapper.getFactory();
+    this.streamDecoder = new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON,
+        MediaType.APPLICATION_NDJSON);
+  }
+
+  @Override
+  public void setMaxInMemorySize(int byteCount) {
+    super.setMaxInMemorySize(byteCount);
+    streamDecoder.setMaxInMemorySize(byteCount);
+  }
+
+  @Override
+  public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+    return elementType.toClass() == MovieInfo.class && super.canDecode(elementType, mimeType);
+  }
+
+  @Override
+  public Flux<MovieInfo> decode(Publisher<DataBuffer> input, ResolvableType elementType, MimeType mimeType,
+      Map<String, Object> hints) {
+    return streamDecoder.decode(input, elementType, mimeType, hints).cast(MovieInfo.class);
+  }
+
+  @Override
+  public MovieInfo decode(DataBuffer buffer, ResolvableType targetType, MimeType mimeType,
+      Map<String, Object> hints) {
+    try (var parser = jsonFactory.createParser(buffer.asInputStream(true))) {
+      return readMovieInfo(parser);
+    } catch (IOException | DateTimeException | NumberFormatException ex) {
+      throw new DecodingException("JSON decoding error: " + ex.getMessage(), ex);
+    }
+  }
+
+  private static MovieInfo readMovieInfo(JsonParser parser) throws IOException {
+    var token = parser.nextToken();
+    if (token == null || token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token != JsonToken.START_OBJECT) {
+      throw new DecodingException("JSON decoding error: a movieInfo object was expected, got " + token);
+    }
+    var movieInfo = new MovieInfo();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      var field = parser.currentName();
+      token = parser.nextToken();
+      switch (field) {
+        case "movieInfoId" -> movieInfo.setMovieInfoId(stringValue(parser, token, field));
+        case "name" -> movieInfo.setName(stringValue(parser, token, field));
+        case "year" -> movieInfo.setYear(token == JsonToken.VALUE_NULL ? null : intValue(parser, token));
+        case "cast" -> movieInfo.setCast(readCast(parser, token));
+        case "release_date" -> movieInfo.setRelease_date(readDate(parser, token));
+        case "version" -> movieInfo.setVersion(token == JsonToken.VALUE_NULL ? null : longValue(parser, token));
+        case "lastModified" -> movieInfo.setLastModified(readInstant(parser, token));
+        //deletedAt is @JsonIgnore, like every unknown field it is skipped
+        default -> parser.skipChildren();
+      }
+    }
+    return movieInfo;
+  }
+
+  private static String stringValue(JsonParser parser, JsonToken token, String field) throws IOException {
+    if (token.isStructStart()) {
+      throw new DecodingException("JSON decoding error: " + field + " must be a string");
+    }
+    return parser.getValueAsString();
+  }
+
+  private static int intValue(JsonParser parser, JsonToken token) throws IOException {
+    return token == JsonToken.VALUE_STRING ? Integer.parseInt(parser.getText().trim()) : parser.getIntValue();
+  }
+
+  private static long longValue(JsonParser parser, JsonToken token) throws IOException {
+    return token == JsonToken.VALUE_STRING ? Long.parseLong(parser.getText().trim()) : parser.getLongValue();
+  }
+
+  private static List<String> readCast(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token != JsonToken.START_ARRAY) {
+      throw new DecodingException("JSON decoding error: cast must be an array");
+    }
+    var cast = new ArrayList<String>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      cast.add(stringValue(parser, parser.currentToken(), "cast"));
+    }
+    return cast;
+  }
+
+  //"yyyy-MM-dd" is read digit by digit, any other text goes through LocalDate.parse()
+  private static LocalDate readDate(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token == JsonToken.START_ARRAY) {
+      //[year, month, day], the timestamp form Jackson writes when WRITE_DATES_AS_TIMESTAMPS is on
+      var date = LocalDate.of(nextInt(parser), nextInt(parser), nextInt(parser));
+      if (parser.nextToken() != JsonToken.END_ARRAY) {
+        throw new DecodingException("JSON decoding error: release_date must be [year, month, day]");
+      }
+      return date;
+    }
+    if (token != JsonToken.VALUE_STRING) {
+      throw new DecodingException("JSON decoding error: release_date must be an ISO date");
+    }
+    var text = parser.getText().trim();
+    if (text.isEmpty()) {
+      return null;
+    }
+    if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+      return LocalDate.of(digits(text, 0, 4), digits(text, 5, 7), digits(text, 8, 10));
+    }
+    return LocalDate.parse(text);
+  }
+
+  private static int nextInt(JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+      throw new DecodingException("JSON decoding error: release_date must be [year, month, day]");
+    }
+    return parser.getIntValue();
+  }
+
+  private static int digits(String text, int from, int to) {
+    int value = 0;
+    for (int i = from; i < to; i++) {
+      int digit = text.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new DecodingException("JSON decoding error: invalid date " + text);
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  //ISO-8601 text or epoch seconds, as accepted by the Jackson InstantDeserializer
+  private static Instant readInstant(JsonParser parser, JsonToken token) throws IOException {
+    return switch (token) {
+      case VALUE_NULL -> null;
+      case VALUE_STRING -> parser.getText().isBlank() ? null : Instant.parse(parser.getText().trim());
+      case VALUE_NUMBER_INT -> Instant.ofEpochSecond(parser.getLongValue());
+      case VALUE_NUMBER_FLOAT -> {
+        var seconds = parser.getDecimalValue();
+        yield Instant.ofEpochSecond(seconds.longValue(),
+            seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+      }
+      default -> throw new DecodingException("JSON decoding error: lastModified must be an ISO instant");
+    };
+  }
+}
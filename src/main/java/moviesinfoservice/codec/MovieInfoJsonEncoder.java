@@ -0,0 +1,288 @@
+package moviesinfoservice.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import moviesinfoservice.domain.MovieInfo;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageEncoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * JSON encoder dedicated to MovieInfo, a single one or a list of them. The output is the one of the
+ * Jackson codec (declaration order, null fields left out, ISO dates, deletedAt never written) but it
+ * is written byte by byte into the buffers of the response factory, pooled with Netty, from
+ * pre-encoded field names. A Flux is written as a JSON array a chunk of movieInfos per buffer, or
+ * one line per movieInfo for NDJSON. A field added to MovieInfo has to be added here too.
+ */
+public class MovieInfoJsonEncoder implements HttpMessageEncoder<Object> {
+
+  private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+  private static final List<MediaType> STREAMING_MEDIA_TYPES = List.of(MediaType.APPLICATION_NDJSON);
+
+  private static final byte[] MOVIE_INFO_ID = ascii("\"movieInfoId\":");
+  private static final byte[] NAME = ascii("\"name\":");
+  private static final byte[] YEAR = ascii("\"year\":");
+  private static final byte[] CAST = ascii("\"cast\":");
+  private static final byte[] RELEASE_DATE = ascii("\"release_date\":");
+  private static final byte[] VERSION = ascii("\"version\":");
+  private static final byte[] LAST_MODIFIED = ascii("\"lastModified\":");
+  private static final byte[] NULL = ascii("null");
+  private static final byte[] ARRAY_START = ascii("[");
+  private static final byte[] ARRAY_END = ascii("]");
+  private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+  private final int chunkSize;
+
+  public MovieInfoJsonEncoder(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+    if (mimeType != null && MIME_TYPES.stream().noneMatch(supported -> supported.isCompatibleWith(mimeType))) {
+      return false;
+    }
+    var type = elementType.toClass();
+    return type == MovieInfo.class
+        || List.class.isAssignableFrom(type) && elementType.asCollection().getGeneric(0).toClass() == MovieInfo.class;
+  }
+
+  @Override
+  public List<MimeType> getEncodableMimeTypes() {
+    return MIME_TYPES;
+  }
+
+  @Override
+  public List<MediaType> getStreamingMediaTypes() {
+    return STREAMING_MEDIA_TYPES;
+  }
+
+  @Override
+  public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+      ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+    if (inputStream instanceof Mono<?> mono) {
+      return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+    }
+    if (mimeType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {
+      return Flux.from(inputStream).map(value -> {
+        var buffer = encodeValue(value, bufferFactory, elementType, mimeType, hints);
+        buffer.write((byte) '\n');
+        return buffer;
+      });
+    }
+    //the first chunk opens the array, the following ones start with the separator
+    var chunks = Flux.from(inputStream)
+        .buffer(chunkSize)
+        .index()
+        .map(chunk -> {
+          var buffer = bufferFactory.allocateBuffer(estimate(chunk.getT2().size()));
+          try {
+            if (chunk.getT1() > 0) {
+              buffer.write((byte) ',');
+            }
+            writeElements(buffer, chunk.getT2());
+            return buffer;
+          } catch (RuntimeException ex) {
+            DataBufferUtils.release(buffer);
+            throw ex;
+          }
+        });
+    return Flux.concat(Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_START)), chunks,
+        Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_END)));
+  }
+
+  @Override
+  public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+      MimeType mimeType, Map<String, Object> hints) {
+    var elements = value instanceof List<?> list ? list : null;
+    var buffer = bufferFactory.allocateBuffer(estimate(elements != null ? elements.size() : 1));
+    try {
+      if (elements != null) {
+        buffer.write((byte) '[');
+        writeElements(buffer, elements);
+        buffer.write((byte) ']');
+      } else {
+        writeMovieInfo(buffer, (MovieInfo) value);
+      }
+      return buffer;
+    } catch (RuntimeException ex) {
+      DataBufferUtils.release(buffer);
+      throw new EncodingException("movieInfo could not be encoded", ex);
+    }
+  }
+
+  private static int estimate(int movieInfos) {
+    return Math.max(64, movieInfos * 256);
+  }
+
+  private static void writeElements(DataBuffer buffer, List<?> movieInfos) {
+    for (int i = 0; i < movieInfos.size(); i++) {
+      if (i > 0) {
+        buffer.write((byte) ',');
+      }
+      writeMovieInfo(buffer, (MovieInfo) movieInfos.get(i));
+    }
+  }
+
+  static void writeMovieInfo(DataBuffer buffer, MovieInfo movieInfo) {
+    if (movieInfo == null) {
+      buffer.write(NULL);
+      return;
+    }
+    buffer.write((byte) '{');
+    var first = true;
+    if (movieInfo.getMovieInfoId() != null) {
+      first = field(buffer, MOVIE_INFO_ID, first);
+      writeString(buffer, movieInfo.getMovieInfoId());
+    }
+    if (movieInfo.getName() != null) {
+      first = field(buffer, NAME, first);
+      writeString(buffer, movieInfo.getName());
+    }
+    if (movieInfo.getYear() != null) {
+      first = field(buffer, YEAR, first);
+      writeLong(buffer, movieInfo.getYear());
+    }
+    if (movieInfo.getCast() != null) {
+      first = field(buffer, CAST, first);
+      buffer.write((byte) '[');
+      var cast = movieInfo.getCast();
+      for (int i = 0; i < cast.size(); i++) {
+        if (i > 0) {
+          buffer.write((byte) ',');
+        }
+        if (cast.get(i) == null) {
+          buffer.write(NULL);
+        } else {
+          writeString(buffer, cast.get(i));
+        }
+      }
+      buffer.write((byte) ']');
+    }
+    if (movieInfo.getRelease_date() != null) {
+      first = field(buffer, RELEASE_DATE, first);
+      writeDate(buffer, movieInfo.getRelease_date());
+    }
+    if (movieInfo.getVersion() != null) {
+      first = field(buffer, VERSION, first);
+      writeLong(buffer, movieInfo.getVersion());
+    }
+    if (movieInfo.getLastModified() != null) {
+      field(buffer, LAST_MODIFIED, first);
+      //ISO-8601 like the Jackson InstantSerializer, its fraction digits vary so it goes through toString()
+      writeString(buffer, movieInfo.getLastModified().toString());
+    }
+    buffer.write((byte) '}');
+  }
+
+  private static boolean field(DataBuffer buffer, byte[] name, boolean first) {
+    if (!first) {
+      buffer.write((byte) ',');
+    }
+    buffer.write(name);
+    return false;
+  }
+
+  //UTF-8 with the escapes of Jackson: \" \\ and the control characters, nothing else
+  static void writeString(DataBuffer buffer, String value) {
+    buffer.ensureWritable(value.length() + 2);
+    buffer.write((byte) '"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (c < 0x20 || c == '"' || c == '\\') {
+          writeEscaped(buffer, c);
+        } else {
+          buffer.write((byte) c);
+        }
+      } else if (c < 0x800) {
+        buffer.write((byte) (0xC0 | c >> 6));
+        buffer.write((byte) (0x80 | c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        buffer.write((byte) (0xF0 | codePoint >> 18));
+        buffer.write((byte) (0x80 | codePoint >> 12 & 0x3F));
+        buffer.write((byte) (0x80 | codePoint >> 6 & 0x3F));
+        buffer.write((byte) (0x80 | codePoint & 0x3F));
+      } else {
+        buffer.write((byte) (0xE0 | c >> 12));
+        buffer.write((byte) (0x80 | c >> 6 & 0x3F));
+        buffer.write((byte) (0x80 | c & 0x3F));
+      }
+    }
+    buffer.write((byte) '"');
+  }
+
+  private static void writeEscaped(DataBuffer buffer, char c) {
+    buffer.write((byte) '\\');
+    switch (c) {
+      case '"', '\\' -> buffer.write((byte) c);
+      case '\n' -> buffer.write((byte) 'n');
+      case '\r' -> buffer.write((byte) 'r');
+      case '\t' -> buffer.write((byte) 't');
+      case '\b' -> buffer.write((byte) 'b');
+      case '\f' -> buffer.write((byte) 'f');
+      default -> {
+        buffer.write((byte) 'u');
+        buffer.write((byte) '0');
+        buffer.write((byte) '0');
+        buffer.write(HEX[c >> 4]);
+        buffer.write(HEX[c & 0xF]);
+      }
+    }
+  }
+
+  static void writeLong(DataBuffer buffer, long value) {
+    if (value == Long.MIN_VALUE) {
+      buffer.write(ascii(Long.toString(value)));
+      return;
+    }
+    if (value < 0) {
+      buffer.write((byte) '-');
+      value = -value;
+    }
+    long divisor = 1;
+    while (divisor <= value / 10) {
+      divisor *= 10;
+    }
+    for (; divisor > 0; divisor /= 10) {
+      buffer.write((byte) ('0' + value / divisor % 10));
+    }
+  }
+
+  //"yyyy-MM-dd" as LocalDate.toString(), which only differs for the years outside 0000-9999
+  static void writeDate(DataBuffer buffer, LocalDate date) {
+    if (date.getYear() < 0 || date.getYear() > 9999) {
+      writeString(buffer, date.toString());
+      return;
+    }
+    buffer.write((byte) '"');
+    writeDigits(buffer, date.getYear(), 4);
+    buffer.write((byte) '-');
+    writeDigits(buffer, date.getMonthValue(), 2);
+    buffer.write((byte) '-');
+    writeDigits(buffer, date.getDayOfMonth(), 2);
+    buffer.write((byte) '"');
+  }
+
+  private static void writeDigits(DataBuffer buffer, int value, int digits) {
+    for (int divisor = digits == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+      buffer.write((byte) ('0' + value / divisor % 10));
+    }
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,17 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.batch-lookup")
+public class BatchLookupProperties {
+
+  //most ids accepted by one batch GET
+  private int maxIds = 500;
+  //merge the single id lookups missing the cache into one $in query
+  private boolean coalescingEnabled = true;
+  private Duration window = Duration.ofMillis(2);
+  private int maxBatchSize = 100;
+}
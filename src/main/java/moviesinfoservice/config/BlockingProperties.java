@@ -0,0 +1,13 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.blocking")
+public class BlockingProperties {
+
+  //one virtual thread per blocking call, false runs them on the shared boundedElastic scheduler
+  private boolean virtualThreads = true;
+  private String threadNamePrefix = "moviesinfo-blocking-";
+}
@@ -0,0 +1,14 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.bulk")
+public class BulkIngestProperties {
+
+  private int batchSize = 500;
+  private int concurrency = 4;
+  //most ids accepted by one bulk delete
+  private int maxDeleteIds = 10_000;
+}
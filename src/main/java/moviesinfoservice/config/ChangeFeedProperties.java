@@ -0,0 +1,22 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.changes")
+public class ChangeFeedProperties {
+
+  //AUTO uses Mongo change streams and falls back to the local events when they are not supported
+  private Source source = Source.AUTO;
+  //events kept per subscriber, the oldest ones are dropped when a subscriber falls behind
+  private int subscriberBufferSize = 256;
+  //latest events kept for the subscribers reconnecting with the id of the last event they received
+  private int historySize = 1024;
+
+  public enum Source {
+    AUTO,
+    CHANGE_STREAM,
+    LOCAL
+  }
+}
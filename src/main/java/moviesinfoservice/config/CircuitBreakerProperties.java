@@ -0,0 +1,20 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.circuit-breaker")
+public class CircuitBreakerProperties {
+
+  private boolean enabled = true;
+  //outcomes of the last calls the failure rate is computed on
+  private int windowSize = 50;
+  //no opening before this many calls are in the window
+  private int minimumCalls = 20;
+  private double failureRateThreshold = 0.5;
+  private Duration openDuration = Duration.ofSeconds(10);
+  //trial calls let through once the open duration is over, all of them have to succeed to close again
+  private int halfOpenCalls = 5;
+}
@@ -0,0 +1,12 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.codec")
+public class CodecProperties {
+
+  private boolean enabled = true;
+  private int chunkSize = 64;
+}
@@ -0,0 +1,13 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.export")
+public class ExportProperties {
+
+  private int batchSize = 1000;
+  private int maxBatchSize = 10_000;
+  private int chunkSize = 64;
+}
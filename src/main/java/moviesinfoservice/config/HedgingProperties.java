@@ -0,0 +1,20 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.hedging")
+public class HedgingProperties {
+
+  private boolean enabled = false;
+  //the second attempt starts once the first one has been running for this percentile of the recent latencies
+  private double percentile = 0.95;
+  private Duration minDelay = Duration.ofMillis(2);
+  //delay used until minimumSamples latencies have been recorded
+  private Duration initialDelay = Duration.ofMillis(50);
+  private long minimumSamples = 100;
+  //hedges running at once, beyond that the attempts are not hedged so a slow Mongo is not loaded twice as much
+  private int maxInFlight = 32;
+}
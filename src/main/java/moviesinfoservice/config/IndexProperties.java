@@ -0,0 +1,12 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.indexes")
+public class IndexProperties {
+
+  private boolean ensureOnStartup = true;
+  private boolean failOnMissing = false;
+}
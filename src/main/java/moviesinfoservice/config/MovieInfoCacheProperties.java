@@ -0,0 +1,13 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.cache")
+public class MovieInfoCacheProperties {
+
+  private long maximumSize = 10_000;
+  private Duration expireAfterWrite = Duration.ofMinutes(5);
+}
@@ -0,0 +1,28 @@
+package moviesinfoservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import moviesinfoservice.codec.MovieInfoJsonDecoder;
+import moviesinfoservice.codec.MovieInfoJsonEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the MovieInfo JSON codec ahead of the Jackson one for the application/json and NDJSON
+ * bodies, any other type or media type is left to the default codecs. Setting
+ * moviesinfo.codec.enabled to false goes back to Jackson.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "moviesinfo.codec", name = "enabled", matchIfMissing = true)
+public class MovieInfoCodecConfig {
+
+  @Bean
+  public CodecCustomizer movieInfoCodecCustomizer(ObjectMapper objectMapper, CodecProperties codecProperties) {
+    return configurer -> {
+      configurer.customCodecs().register(new MovieInfoJsonEncoder(codecProperties.getChunkSize()));
+      //with the default config so that spring.codec.max-in-memory-size applies
+      configurer.customCodecs().registerWithDefaultConfig(new MovieInfoJsonDecoder(objectMapper));
+    };
+  }
+}
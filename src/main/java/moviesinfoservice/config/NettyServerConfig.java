@@ -0,0 +1,66 @@
+package moviesinfoservice.config;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Reactor Netty tuning of the prod profile: dedicated event loops, pooled buffers, a cap on the open
+ * connections and the reactor.netty.http.server metrics. Compression, HTTP/2 (h2c) and timeouts are
+ * plain server.* properties in application.yml.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "moviesinfo.server", name = "tuning-enabled", havingValue = "true")
+@Slf4j
+public class NettyServerConfig {
+
+  @Bean
+  public ReactorResourceFactory moviesInfoReactorResourceFactory(ServerTuningProperties serverTuningProperties) {
+    var resourceFactory = new ReactorResourceFactory();
+    if (serverTuningProperties.getEventLoopThreads() > 0) {
+      resourceFactory.setUseGlobalResources(false);
+      resourceFactory.setLoopResourcesSupplier(() -> LoopResources.create("moviesinfo-http",
+          serverTuningProperties.getEventLoopThreads(), true));
+    }
+    return resourceFactory;
+  }
+
+  @Bean
+  public NettyServerCustomizer moviesInfoNettyServerCustomizer(ServerTuningProperties serverTuningProperties) {
+    var openConnections = new AtomicInteger();
+    return httpServer -> httpServer
+        .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        //ids are folded into a template so the uri tag keeps a bounded cardinality
+        .metrics(serverTuningProperties.isMetricsEnabled(), NettyServerConfig::uriTag)
+        .doOnConnection(connection -> {
+          connection.onDispose(openConnections::decrementAndGet);
+          if (openConnections.incrementAndGet() > serverTuningProperties.getMaxConnections()) {
+            log.warn("Max connections {} reached, closing {}", serverTuningProperties.getMaxConnections(),
+                connection.channel().remoteAddress());
+            connection.dispose();
+          }
+        });
+  }
+
+  static String uriTag(String uri) {
+    var path = uri.indexOf('?') >= 0 ? uri.substring(0, uri.indexOf('?')) : uri;
+    if (!path.startsWith("/v1/moviesinfo/")) {
+      return path;
+    }
+    var segment = path.substring("/v1/moviesinfo/".length());
+    if (segment.indexOf('/') >= 0) {
+      segment = segment.substring(0, segment.indexOf('/'));
+    }
+    return switch (segment) {
+      case "bulk", "batch", "export", "search", "autocomplete", "changes", "statistics" -> path;
+      default -> "/v1/moviesinfo/{id}";
+    };
+  }
+}
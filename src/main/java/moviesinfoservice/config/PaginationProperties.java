@@ -0,0 +1,23 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import moviesinfoservice.exception.InvalidPageRequestException;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.pagination")
+public class PaginationProperties {
+
+  private int defaultLimit = 100;
+  private int maxLimit = 1000;
+
+  public int resolveLimit(Integer limit) {
+    if (limit == null) {
+      return defaultLimit;
+    }
+    if (limit <= 0) {
+      throw new InvalidPageRequestException("limit must be a positive value");
+    }
+    return Math.min(limit, maxLimit);
+  }
+}
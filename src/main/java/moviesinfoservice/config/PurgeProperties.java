@@ -0,0 +1,18 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.purge")
+public class PurgeProperties {
+
+  private boolean enabled = true;
+  private Duration interval = Duration.ofMinutes(1);
+  //tombstones younger than this are kept, so that caches and change feed consumers see the delete first
+  private Duration retention = Duration.ofMinutes(10);
+  private int batchSize = 500;
+  //the batches are paced so that a large purge does not compete with the foreground traffic
+  private int maxDeletesPerSecond = 2_000;
+}
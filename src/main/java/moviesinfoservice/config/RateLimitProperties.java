@@ -0,0 +1,39 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.rate-limit")
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+  //clients are identified by this header when it holds one of the api keys, by their remote address otherwise.
+  //An unchecked key would let a client get a new bucket with every request
+  private String clientKeyHeader = "X-API-Key";
+  private Set<String> apiKeys = new HashSet<>();
+  private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+  private long maxBuckets = 100_000;
+  //first matching route wins, requests matching no route are not limited
+  private List<Route> routes = new ArrayList<>();
+  //streams last as long as their payload: they hold a concurrency slot, their latency does not adapt the limit
+  private List<String> streamingPatterns = new ArrayList<>(
+      List.of("/v1/moviesinfo/export", "/v1/moviesinfo/bulk"));
+
+  @Data
+  public static class Route {
+
+    private String pattern;
+    private int capacity = 100;
+    private double refillPerSecond = 50;
+    //a maxConcurrency of 0 disables the concurrency limit, e.g. for long-lived streams
+    private int minConcurrency = 8;
+    private int maxConcurrency = 0;
+    private Duration targetLatency = Duration.ofMillis(200);
+  }
+}
@@ -0,0 +1,19 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.read-routing")
+public class ReadRoutingProperties {
+
+  //false keeps every read on the primary
+  private boolean enabled = false;
+  //mongo read preference mode of the routed reads: secondary, secondaryPreferred, nearest...
+  private String readPreference = "secondaryPreferred";
+  //secondaries lagging behind the primary by more than this are not read from, mongo requires 90s at least
+  private Duration maxStaleness = Duration.ofSeconds(90);
+  //writes hand out an X-Read-After token, the routed reads sent with it see those writes
+  private boolean causalConsistency = false;
+}
@@ -0,0 +1,16 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.server")
+public class ServerTuningProperties {
+
+  private boolean tuningEnabled = false;
+  //0 keeps the Reactor Netty default (one loop per core)
+  private int eventLoopThreads = 0;
+  //connections accepted above this number are closed right away
+  private int maxConnections = 10_000;
+  private boolean metricsEnabled = true;
+}
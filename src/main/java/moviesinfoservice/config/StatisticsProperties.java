@@ -0,0 +1,15 @@
+package moviesinfoservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.statistics")
+public class StatisticsProperties {
+
+  //maintain the movieInfoStatistics collection on every write and serve the statistics from it
+  private boolean materialized = false;
+  //build the collection from the aggregation pipelines at startup when it is empty
+  private boolean rebuildWhenEmpty = true;
+  private int defaultTopCast = 10;
+}
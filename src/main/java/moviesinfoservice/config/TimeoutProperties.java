@@ -0,0 +1,23 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.timeouts")
+public class TimeoutProperties {
+
+  //budget of the service methods missing from the map, also the maxTimeMS of the queries run without a deadline
+  private Duration defaultTimeout = Duration.ofSeconds(5);
+  //cap of the timeout a client asks for in the X-Request-Timeout header
+  private Duration maxTimeout = Duration.ofSeconds(30);
+  //per service method, keyed by the method tag of the moviesinfo.service timer (findById, findAll, update...)
+  private Map<String, Duration> methods = new HashMap<>();
+
+  public Duration timeoutOf(String method) {
+    return methods.getOrDefault(method, defaultTimeout);
+  }
+}
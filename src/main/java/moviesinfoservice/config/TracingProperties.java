@@ -0,0 +1,23 @@
+package moviesinfoservice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.tracing")
+public class TracingProperties {
+
+  private boolean enabled = false;
+  private double defaultSampleRate = 0.0;
+  //first matching route wins, requests matching no route use the defaultSampleRate
+  private List<Route> routes = new ArrayList<>();
+
+  @Data
+  public static class Route {
+
+    private String pattern;
+    private double sampleRate;
+  }
+}
@@ -0,0 +1,22 @@
+package moviesinfoservice.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Data
+@ConfigurationProperties(prefix = "moviesinfo.year-cache")
+public class YearCacheProperties {
+
+  private boolean enabled = true;
+  //bound on the estimated heap taken by the snapshots, the least used years are evicted past it
+  private DataSize maximumMemory = DataSize.ofMegabytes(64);
+  //the writes patch the snapshots, those of the other instances through the change feed. The expiry bounds how long
+  //they go unseen when the change feed falls back to the local events
+  private Duration expireAfterWrite = Duration.ofMinutes(30);
+  //most requested years preloaded at startup, 0 disables the warm-up
+  private int warmupYears = 20;
+  //how often the per-year request counts are added to the movieInfoYearRequests collection
+  private Duration requestFlushInterval = Duration.ofMinutes(1);
+}
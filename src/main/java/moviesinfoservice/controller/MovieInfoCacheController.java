@@ -0,0 +1,32 @@
+package moviesinfoservice.controller;
+
+import moviesinfoservice.cache.MovieInfoCache;
+import moviesinfoservice.cache.MovieInfoCacheStats;
+import moviesinfoservice.cache.MovieInfoYearCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/v1/cache/moviesinfo")
+public class MovieInfoCacheController {
+
+  private MovieInfoCache movieInfoCache;
+  private MovieInfoYearCache movieInfoYearCache;
+
+  public MovieInfoCacheController(MovieInfoCache movieInfoCache, MovieInfoYearCache movieInfoYearCache) {
+    this.movieInfoCache = movieInfoCache;
+    this.movieInfoYearCache = movieInfoYearCache;
+  }
+
+  @GetMapping("/stats")
+  public Mono<MovieInfoCacheStats> stats() {
+    return Mono.fromSupplier(movieInfoCache::stats);
+  }
+
+  @GetMapping("/years/stats")
+  public Mono<MovieInfoCacheStats> yearStats() {
+    return Mono.fromSupplier(movieInfoYearCache::stats);
+  }
+}
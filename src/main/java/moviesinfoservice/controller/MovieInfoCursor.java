@@ -0,0 +1,33 @@
+package moviesinfoservice.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import moviesinfoservice.exception.InvalidPageRequestException;
+
+/**
+ * Opaque keyset cursor handed out in the {@value #NEXT_CURSOR_HEADER} header. It wraps the
+ * movieInfoId of the last element of a page, the next page starts strictly after it.
+ */
+final class MovieInfoCursor {
+
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private MovieInfoCursor() {
+  }
+
+  static String encode(String movieInfoId) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(movieInfoId.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static String decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidPageRequestException("after must be a cursor returned by a previous page");
+    }
+  }
+}
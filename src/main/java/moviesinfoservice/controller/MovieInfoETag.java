@@ -0,0 +1,91 @@
+package moviesinfoservice.controller;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.exception.PreconditionFailedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
+
+/**
+ * Validators of the movieInfo resources. A single movieInfo gets a weak ETag made of its version
+ * and a Last-Modified date, a page gets a weak ETag digested from the ids and versions of its
+ * elements and its next cursor. Given these headers the ResponseEntity result handler answers a
+ * matching If-None-Match or If-Modified-Since with 304 before any body is serialized. Both are weak as the JSON and Smile representations are only
+ * semantically equivalent.
+ */
+final class MovieInfoETag {
+
+  private MovieInfoETag() {
+  }
+
+  static BodyBuilder ok(MovieInfo movieInfo) {
+    var builder = ResponseEntity.ok();
+    if (movieInfo.getVersion() != null) {
+      builder.eTag("W/\"" + movieInfo.getVersion() + "\"");
+    }
+    if (movieInfo.getLastModified() != null) {
+      builder.lastModified(movieInfo.getLastModified());
+    }
+    return builder;
+  }
+
+  //a SHA-256 of the cursor and of the id and version of each element, every write bumps the version. The values
+  //are length prefixed so that no two pages feed the digest the same bytes
+  static BodyBuilder ok(List<MovieInfo> page, String nextCursor) {
+    var digest = sha256();
+    update(digest, nextCursor);
+    for (var movieInfo : page) {
+      update(digest, movieInfo.getMovieInfoId());
+      update(digest, movieInfo.getVersion() != null ? movieInfo.getVersion().toString() : null);
+    }
+    return ResponseEntity.ok().eTag("W/\"" + HexFormat.of().formatHex(digest.digest()) + "\"");
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    if (value == null) {
+      digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+      return;
+    }
+    var bytes = value.getBytes(StandardCharsets.UTF_8);
+    digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+    digest.update(bytes);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException ex) {
+      //every Java platform is required to support SHA-256
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * The version an If-Match header asks for, null when the header is absent or "*" (any current
+   * representation). Only the single tags handed out by {@link #ok(MovieInfo)} can match: the version
+   * names the state of the movieInfo whatever its representation, so the weak tag is accepted like
+   * its strong form.
+   */
+  static Long version(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    var tag = ifMatch.trim();
+    if (tag.startsWith("W/")) {
+      tag = tag.substring(2);
+    }
+    if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      try {
+        return Long.parseLong(tag.substring(1, tag.length() - 1));
+      } catch (NumberFormatException ex) {
+        //falls through, an unknown tag cannot match the current representation
+      }
+    }
+    throw new PreconditionFailedException("If-Match " + ifMatch + " does not match the current movieInfo");
+  }
+}
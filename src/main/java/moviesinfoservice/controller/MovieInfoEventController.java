@@ -0,0 +1,41 @@
+package moviesinfoservice.controller;
+
+import moviesinfoservice.domain.MovieInfoEvent;
+import moviesinfoservice.service.MovieInfoChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/v1/moviesinfo/changes")
+public class MovieInfoEventController {
+
+  private MovieInfoChangeFeed movieInfoChangeFeed;
+
+  public MovieInfoEventController(MovieInfoChangeFeed movieInfoChangeFeed) {
+    this.movieInfoChangeFeed = movieInfoChangeFeed;
+  }
+
+  //the event id is the resume token, so an EventSource reconnecting with Last-Event-ID misses nothing
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public Flux<ServerSentEvent<MovieInfoEvent>> streamChanges(
+      @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+      @RequestParam(value = "resumeAfter", required = false) String resumeAfter) {
+    return movieInfoChangeFeed.events(lastEventId != null ? lastEventId : resumeAfter)
+        .map(event -> ServerSentEvent.builder(event)
+            .id(event.resumeToken())
+            .event(event.type().name())
+            .build());
+  }
+
+  @GetMapping(produces = {MediaType.APPLICATION_NDJSON_VALUE, MovieInfoMediaTypes.APPLICATION_STREAM_SMILE_VALUE})
+  public Flux<MovieInfoEvent> changes(
+      @RequestParam(value = "resumeAfter", required = false) String resumeAfter) {
+    return movieInfoChangeFeed.events(resumeAfter);
+  }
+}
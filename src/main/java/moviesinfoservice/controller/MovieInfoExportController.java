@@ -0,0 +1,53 @@
+package moviesinfoservice.controller;
+
+import java.util.Locale;
+import moviesinfoservice.exception.InvalidPageRequestException;
+import moviesinfoservice.service.MovieInfoExportService;
+import moviesinfoservice.service.MovieInfoExportService.Format;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/v1/moviesinfo/export")
+public class MovieInfoExportController {
+
+  private MovieInfoExportService movieInfoExportService;
+
+  public MovieInfoExportController(MovieInfoExportService movieInfoExportService) {
+    this.movieInfoExportService = movieInfoExportService;
+  }
+
+  //the rows are sorted by movieInfoId, an interrupted export resumes with startAfter set to the last id received
+  @GetMapping
+  public Mono<Void> exportMovieInfos(
+      @RequestParam(value = "format", defaultValue = "ndjson") String format,
+      @RequestParam(value = "startAfter", required = false) String startAfter,
+      @RequestParam(value = "batchSize", required = false) Integer batchSize,
+      @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+      ServerHttpResponse response) {
+    var exportFormat = format(format);
+    var body = movieInfoExportService.export(exportFormat, startAfter, batchSize, gzip, response.bufferFactory());
+    response.getHeaders().setContentType(exportFormat.mediaType());
+    response.getHeaders().setContentDisposition(ContentDisposition.attachment()
+        .filename("moviesinfo." + exportFormat.name().toLowerCase(Locale.ROOT))
+        .build());
+    if (gzip) {
+      response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.writeWith(body);
+  }
+
+  private Format format(String format) {
+    try {
+      return Format.valueOf(format.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidPageRequestException("format must be ndjson or csv");
+    }
+  }
+}
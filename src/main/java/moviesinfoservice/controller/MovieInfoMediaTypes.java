@@ -0,0 +1,14 @@
+package moviesinfoservice.controller;
+
+/**
+ * Binary Smile media types handled by the Jackson Smile codecs. The stream variant encodes a Flux
+ * element by element instead of as a single array.
+ */
+public final class MovieInfoMediaTypes {
+
+  public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+  public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+
+  private MovieInfoMediaTypes() {
+  }
+}
@@ -0,0 +1,49 @@
+package moviesinfoservice.controller;
+
+import moviesinfoservice.domain.MovieInfoCount;
+import moviesinfoservice.domain.MovieInfoStatisticType;
+import moviesinfoservice.exception.InvalidPageRequestException;
+import moviesinfoservice.service.MovieInfoStatisticsService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/v1/moviesinfo/statistics")
+public class MovieInfoStatisticsController {
+
+  //bounds the per-year and per-month histograms, far above any real catalog
+  private static final int MAX_BUCKETS = 10_000;
+
+  private MovieInfoStatisticsService movieInfoStatisticsService;
+
+  public MovieInfoStatisticsController(MovieInfoStatisticsService movieInfoStatisticsService) {
+    this.movieInfoStatisticsService = movieInfoStatisticsService;
+  }
+
+  @GetMapping("/years")
+  public Flux<MovieInfoCount> countByYear() {
+    return movieInfoStatisticsService.getCounts(MovieInfoStatisticType.YEAR, MAX_BUCKETS);
+  }
+
+  @GetMapping("/decades")
+  public Flux<MovieInfoCount> countByDecade() {
+    return movieInfoStatisticsService.getCounts(MovieInfoStatisticType.DECADE, MAX_BUCKETS);
+  }
+
+  @GetMapping("/cast")
+  public Flux<MovieInfoCount> topCast(@RequestParam(value = "limit", required = false) Integer limit) {
+    var topCast = limit != null ? limit : movieInfoStatisticsService.defaultTopCast();
+    if (topCast <= 0) {
+      return Flux.error(new InvalidPageRequestException("limit must be a positive value"));
+    }
+    return movieInfoStatisticsService.getCounts(MovieInfoStatisticType.CAST, Math.min(topCast, MAX_BUCKETS));
+  }
+
+  @GetMapping("/release-months")
+  public Flux<MovieInfoCount> countByReleaseMonth() {
+    return movieInfoStatisticsService.getCounts(MovieInfoStatisticType.RELEASE_MONTH, MAX_BUCKETS);
+  }
+}
@@ -1,17 +1,36 @@
 package moviesinfoservice.controller;
 
 import jakarta.validation.Valid;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.BatchLookupProperties;
+import moviesinfoservice.config.PaginationProperties;
 import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoBulkResult;
+import moviesinfoservice.domain.MovieInfoDeleteFilter;
+import moviesinfoservice.domain.MovieInfoDeleteResult;
+import moviesinfoservice.domain.MovieInfoLookup;
+import moviesinfoservice.domain.MovieInfoPatch;
+import moviesinfoservice.exception.InvalidPageRequestException;
+import moviesinfoservice.exception.PreconditionFailedException;
+import moviesinfoservice.service.MovieInfoBulkService;
 import moviesinfoservice.service.MoviesInfoService;
+import moviesinfoservice.tracing.RequestTrace;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -24,47 +43,169 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class MoviesInfoController {
 
+  private static final Set<String> PROJECTABLE_FIELDS =
+      Set.of("movieInfoId", "name", "year", "cast", "release_date");
+
   private MoviesInfoService moviesInfoService;
+  private MovieInfoBulkService movieInfoBulkService;
+  private PaginationProperties paginationProperties;
+  private BatchLookupProperties batchLookupProperties;
 
-  public MoviesInfoController(MoviesInfoService moviesInfoService) {
+  public MoviesInfoController(MoviesInfoService moviesInfoService,
+      MovieInfoBulkService movieInfoBulkService, PaginationProperties paginationProperties,
+      BatchLookupProperties batchLookupProperties) {
     this.moviesInfoService = moviesInfoService;
+    this.movieInfoBulkService = movieInfoBulkService;
+    this.paginationProperties = paginationProperties;
+    this.batchLookupProperties = batchLookupProperties;
   }
 
   @PostMapping
   @ResponseStatus(HttpStatus.CREATED)
   public Mono<MovieInfo> addMovieInfo(@RequestBody @Valid MovieInfo movieInfo){
-    return moviesInfoService.addMovieInfo(movieInfo).log();
+    return moviesInfoService.addMovieInfo(movieInfo).transform(RequestTrace::countElement);
+  }
+
+  //accepts a JSON array, NDJSON or streamed Smile, each element is validated on its own and reported in the results
+  @PostMapping(value = "/bulk",
+      consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+          MovieInfoMediaTypes.APPLICATION_STREAM_SMILE_VALUE},
+      produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+          MovieInfoMediaTypes.APPLICATION_STREAM_SMILE_VALUE})
+  public Flux<MovieInfoBulkResult> addMovieInfos(@RequestBody Flux<MovieInfo> movieInfos){
+    return movieInfoBulkService.addMovieInfos(movieInfos).transform(RequestTrace::countElements);
+  }
+
+  //tombstones every movieInfo matching the filter, the purge removes them in the background
+  @PostMapping("/bulk/delete")
+  public Mono<MovieInfoDeleteResult> deleteMovieInfos(@RequestBody MovieInfoDeleteFilter filter){
+    if (filter.isEmpty()) {
+      return Mono.error(new InvalidPageRequestException("year or ids must be given"));
+    }
+    return movieInfoBulkService.deleteMovieInfos(filter);
   }
 
   @GetMapping
-  public Flux<MovieInfo> getAllMovieInfos(@RequestParam(value="year",required = false) Integer year){
-    log.info("Year is : {}",year);
-    if(year!=null){
-      return moviesInfoService.getMovieInfosByYear(year);
+  public Mono<ResponseEntity<List<MovieInfo>>> getAllMovieInfos(
+      @RequestParam(value="year",required = false) Integer year,
+      @RequestParam(value="limit",required = false) Integer limit,
+      @RequestParam(value="after",required = false) String after,
+      @RequestParam(value="fields",required = false) List<String> fields){
+    log.debug("Year is : {}",year);
+    var pageSize = paginationProperties.resolveLimit(limit);
+    //one extra element is fetched to know whether a next page exists
+    return moviesInfoService.getMovieInfosPage(year, MovieInfoCursor.decode(after), pageSize + 1,
+            projection(fields))
+        .transform(RequestTrace::countElements)
+        .collectList()
+        .map(movieInfos -> {
+          if (movieInfos.size() <= pageSize) {
+            return MovieInfoETag.ok(movieInfos, null).body(movieInfos);
+          }
+          var page = movieInfos.subList(0, pageSize);
+          var nextCursor = MovieInfoCursor.encode(page.get(pageSize - 1).getMovieInfoId());
+          return MovieInfoETag.ok(page, nextCursor)
+              .header(MovieInfoCursor.NEXT_CURSOR_HEADER, nextCursor)
+              .body(page);
+        });
+  }
+
+  @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+      MovieInfoMediaTypes.APPLICATION_STREAM_SMILE_VALUE})
+  public Flux<MovieInfo> searchMovieInfos(@RequestParam("q") String text,
+      @RequestParam(value="limit",required = false) Integer limit){
+    if (text.isBlank()) {
+      return Flux.empty();
+    }
+    return moviesInfoService.searchMovieInfos(text, paginationProperties.resolveLimit(limit))
+        .transform(RequestTrace::countElements);
+  }
+
+  @GetMapping(value = "/autocomplete", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+      MovieInfoMediaTypes.APPLICATION_STREAM_SMILE_VALUE})
+  public Flux<MovieInfo> autocompleteMovieInfos(@RequestParam("prefix") String prefix,
+      @RequestParam(value="limit",defaultValue = "10") Integer limit){
+    if (prefix.isBlank()) {
+      return Flux.empty();
+    }
+    return moviesInfoService.autocompleteMovieInfos(prefix, paginationProperties.resolveLimit(limit))
+        .transform(RequestTrace::countElements);
+  }
+
+  //ids as a comma separated list or repeated parameter, resolved by one $in query for the ones not cached
+  @GetMapping(value = "/batch", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE,
+      MovieInfoMediaTypes.APPLICATION_STREAM_SMILE_VALUE})
+  public Flux<MovieInfoLookup> getMovieInfosByIds(@RequestParam("ids") List<String> ids){
+    if (ids.size() > batchLookupProperties.getMaxIds()) {
+      throw new InvalidPageRequestException("ids must not contain more than " + batchLookupProperties.getMaxIds()
+          + " values");
     }
-    return moviesInfoService.getAllMovieInfos().log();
+    return moviesInfoService.getMovieInfosByIds(ids.stream().map(String::trim).toList())
+        .transform(RequestTrace::countElements);
   }
 
   @GetMapping("/{id}")
   public Mono<ResponseEntity<MovieInfo>> getMovieInfosById(@PathVariable String id){
     return moviesInfoService.getMovieInfosById(id)
-        .map(ResponseEntity.ok()::body)
-        .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
-        .log();
+        .transform(RequestTrace::countElement)
+        .map(movieInfo -> MovieInfoETag.ok(movieInfo).body(movieInfo))
+        .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
   }
 
   @PutMapping("/{id}")
-  public Mono<ResponseEntity<MovieInfo>> updateMovieInfo(@RequestBody MovieInfo updateMovieInfo,@PathVariable String id){
+  public Mono<ResponseEntity<MovieInfo>> updateMovieInfo(@RequestBody MovieInfo updateMovieInfo,@PathVariable String id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+    var version = MovieInfoETag.version(ifMatch);
+    if (version != null) {
+      if (updateMovieInfo.getVersion() != null && !updateMovieInfo.getVersion().equals(version)) {
+        return Mono.error(new PreconditionFailedException("If-Match and the movieInfo version differ"));
+      }
+      updateMovieInfo.setVersion(version);
+    }
     return moviesInfoService.updateMovieInfo(updateMovieInfo,id)
-        .map(ResponseEntity.ok()::body)// this operation transform Mono<MovieInfo> to Mono<ResponseEntity<MovieInfo>>
-        .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()))
-        .log();
+        .transform(mono -> preconditionFailed(mono, version))
+        .transform(RequestTrace::countElement)
+        .map(movieInfo -> MovieInfoETag.ok(movieInfo).body(movieInfo))// this operation transform Mono<MovieInfo> to Mono<ResponseEntity<MovieInfo>>
+        .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
+  }
+
+  @PatchMapping("/{id}")
+  public Mono<ResponseEntity<MovieInfo>> patchMovieInfo(@RequestBody @Valid MovieInfoPatch patch,@PathVariable String id){
+    return moviesInfoService.patchMovieInfo(patch,id)
+        .transform(RequestTrace::countElement)
+        .map(movieInfo -> MovieInfoETag.ok(movieInfo).body(movieInfo))
+        .switchIfEmpty(Mono.just(ResponseEntity.notFound().build()));
   }
 
   @DeleteMapping("/{id}")
   @ResponseStatus(HttpStatus.NO_CONTENT)
-  public Mono<Void> deleteMovieInfo(@PathVariable String id){
-    return moviesInfoService.deleteMovieInfo(id).log();
+  public Mono<Void> deleteMovieInfo(@PathVariable String id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+    var version = MovieInfoETag.version(ifMatch);
+    return moviesInfoService.deleteMovieInfo(id, version).transform(mono -> preconditionFailed(mono, version));
+  }
+
+  //a version that came from If-Match fails the precondition (412) rather than conflicting with the body (409)
+  private <T> Mono<T> preconditionFailed(Mono<T> mono, Long ifMatchVersion) {
+    if (ifMatchVersion == null) {
+      return mono;
+    }
+    return mono.onErrorMap(OptimisticLockingFailureException.class,
+        ex -> new PreconditionFailedException(ex.getMessage()));
+  }
+
+  private Set<String> projection(List<String> fields) {
+    if (fields == null) {
+      return Set.of();
+    }
+    var projection = new HashSet<String>();
+    for (var field : fields) {
+      if (!PROJECTABLE_FIELDS.contains(field.trim())) {
+        throw new InvalidPageRequestException("fields must be among " + PROJECTABLE_FIELDS);
+      }
+      projection.add(field.trim());
+    }
+    return projection;
   }
 
 }
@@ -1,29 +1,57 @@
 package moviesinfoservice.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document
+@JsonInclude(JsonInclude.Include.NON_NULL)//fields left out of a projection are not serialized
+//year first then _id, so the year filter and its keyset pagination are served by the same index
+@CompoundIndex(name = "year_id", def = "{'year': 1, '_id': 1}")
 public class MovieInfo {
 
   @Id
   private String movieInfoId;
   @NotBlank(message = "movieInfo.name must be present")
+  @Indexed//prefix (autocomplete) lookups
+  @TextIndexed(weight = 2)
   private String name;
   @NotNull
   @Positive(message = "movieInfo.year must be a positive value")
   private  Integer year;
+  @Indexed//multikey index, one entry per cast member
+  @TextIndexed
   private List<@NotBlank(message = "movieInfo.cast must be present")String> cast;
+  @Indexed
   private LocalDate release_date;
+  @Version//optimistic locking, incremented by every save and patch
+  private Long version;
+  @LastModifiedDate//set by the auditing callback on save and insert, by the update itself on patch
+  private Instant lastModified;
+  @JsonIgnore//tombstone set by a delete, the document is filtered out of every read until the purge removes it
+  @Indexed(sparse = true)
+  private Instant deletedAt;
+
+  public MovieInfo(String movieInfoId, String name, Integer year, List<String> cast,
+      LocalDate release_date) {
+    this(movieInfoId, name, year, cast, release_date, null, null, null);
+  }
 }
@@ -0,0 +1,20 @@
+package moviesinfoservice.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MovieInfoBulkResult(long index, String movieInfoId, Status status, String error) {
+
+  public enum Status {
+    CREATED,
+    FAILED
+  }
+
+  public static MovieInfoBulkResult created(long index, String movieInfoId) {
+    return new MovieInfoBulkResult(index, movieInfoId, Status.CREATED, null);
+  }
+
+  public static MovieInfoBulkResult failed(long index, String movieInfoId, String error) {
+    return new MovieInfoBulkResult(index, movieInfoId, Status.FAILED, error);
+  }
+}
@@ -0,0 +1,11 @@
+package moviesinfoservice.domain;
+
+import java.util.List;
+
+//the movieInfos of the year and/or among the ids, at least one of them must be given
+public record MovieInfoDeleteFilter(Integer year, List<String> ids) {
+
+  public boolean isEmpty() {
+    return year == null && (ids == null || ids.isEmpty());
+  }
+}
@@ -0,0 +1,5 @@
+package moviesinfoservice.domain;
+
+public record MovieInfoDeleteResult(long deleted) {
+
+}
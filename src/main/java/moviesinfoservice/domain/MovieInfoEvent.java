@@ -0,0 +1,13 @@
+package moviesinfoservice.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MovieInfoEvent(Type type, String movieInfoId, MovieInfo movieInfo, String resumeToken) {
+
+  public enum Type {
+    INSERT,
+    UPDATE,
+    DELETE
+  }
+}
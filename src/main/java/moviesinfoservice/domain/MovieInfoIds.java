@@ -0,0 +1,46 @@
+package moviesinfoservice.domain;
+
+import java.util.Comparator;
+import org.bson.types.ObjectId;
+
+/**
+ * The order Mongo sorts the movieInfo ids in. Spring Data stores an id that is a valid ObjectId hex
+ * string as an ObjectId and any other id as a string, and BSON sorts every string before every
+ * ObjectId. Strings compare by their UTF-8 bytes, ObjectIds by their 12 bytes.
+ */
+public final class MovieInfoIds {
+
+  public static final Comparator<String> ORDER = MovieInfoIds::compare;
+
+  private MovieInfoIds() {
+  }
+
+  public static boolean isObjectId(String movieInfoId) {
+    return ObjectId.isValid(movieInfoId);
+  }
+
+  private static int compare(String first, String second) {
+    var firstIsObjectId = isObjectId(first);
+    if (firstIsObjectId != isObjectId(second)) {
+      return firstIsObjectId ? 1 : -1;
+    }
+    //hex digits sort like the bytes they encode, whatever the case of the letters
+    return firstIsObjectId ? first.compareToIgnoreCase(second) : compareCodePoints(first, second);
+  }
+
+  //code point order is the UTF-8 byte order, String.compareTo() differs on the supplementary characters
+  private static int compareCodePoints(String first, String second) {
+    var i = 0;
+    var j = 0;
+    while (i < first.length() && j < second.length()) {
+      var firstCodePoint = first.codePointAt(i);
+      var secondCodePoint = second.codePointAt(j);
+      if (firstCodePoint != secondCodePoint) {
+        return Integer.compare(firstCodePoint, secondCodePoint);
+      }
+      i += Character.charCount(firstCodePoint);
+      j += Character.charCount(secondCodePoint);
+    }
+    return Integer.compare(first.length() - i, second.length() - j);
+  }
+}
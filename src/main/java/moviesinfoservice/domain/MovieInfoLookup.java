@@ -0,0 +1,20 @@
+package moviesinfoservice.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MovieInfoLookup(String movieInfoId, Status status, MovieInfo movieInfo) {
+
+  public enum Status {
+    FOUND,
+    NOT_FOUND
+  }
+
+  public static MovieInfoLookup found(MovieInfo movieInfo) {
+    return new MovieInfoLookup(movieInfo.getMovieInfoId(), Status.FOUND, movieInfo);
+  }
+
+  public static MovieInfoLookup notFound(String movieInfoId) {
+    return new MovieInfoLookup(movieInfoId, Status.NOT_FOUND, null);
+  }
+}
@@ -0,0 +1,29 @@
+package moviesinfoservice.domain;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+//null fields are left unchanged, a version makes the patch conditional on the version last read
+public record MovieInfoPatch(
+    @Pattern(regexp = ".*\\S.*", message = "movieInfo.name must be present") String name,
+    @Positive(message = "movieInfo.year must be a positive value") Integer year,
+    List<@NotBlank(message = "movieInfo.cast must be present") String> cast,
+    LocalDate release_date,
+    Long version) {
+
+  //the document as written by the patch, given the document it was applied to
+  public MovieInfo applyTo(MovieInfo movieInfo, Instant lastModified) {
+    return new MovieInfo(movieInfo.getMovieInfoId(),
+        name != null ? name : movieInfo.getName(),
+        year != null ? year : movieInfo.getYear(),
+        cast != null ? cast : movieInfo.getCast(),
+        release_date != null ? release_date : movieInfo.getRelease_date(),
+        movieInfo.getVersion() != null ? movieInfo.getVersion() + 1 : 1L,
+        lastModified,
+        null);
+  }
+}
@@ -0,0 +1,21 @@
+package moviesinfoservice.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+//one materialized counter of the summary collection, its id is "<type>:<key>"
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("movieInfoStatistics")
+public class MovieInfoStatistic {
+
+  @Id
+  private String id;
+  private MovieInfoStatisticType type;
+  private String key;
+  private long count;
+}
@@ -0,0 +1,37 @@
+package moviesinfoservice.domain;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+
+public enum MovieInfoStatisticType {
+  YEAR,
+  DECADE,
+  CAST,
+  RELEASE_MONTH;
+
+  private static final DateTimeFormatter RELEASE_MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+  //keys a movieInfo counts for, they must match the keys produced by the aggregation pipelines
+  public List<String> keysOf(MovieInfo movieInfo) {
+    return switch (this) {
+      case YEAR -> movieInfo.getYear() == null ? List.of() : List.of(String.valueOf(movieInfo.getYear()));
+      case DECADE -> movieInfo.getYear() == null
+          ? List.of()
+          : List.of(String.valueOf(movieInfo.getYear() - movieInfo.getYear() % 10));
+      case CAST -> movieInfo.getCast() == null ? List.of() : movieInfo.getCast();
+      case RELEASE_MONTH -> movieInfo.getRelease_date() == null
+          ? List.of()
+          : List.of(movieInfo.getRelease_date().format(RELEASE_MONTH_FORMAT));
+    };
+  }
+
+  //years and decades in numeric order, cast members by count, months in calendar order
+  public Comparator<MovieInfoCount> order() {
+    return switch (this) {
+      case YEAR, DECADE -> Comparator.comparingLong(count -> Long.parseLong(count.key()));
+      case CAST -> Comparator.comparingLong(MovieInfoCount::count).reversed();
+      case RELEASE_MONTH -> Comparator.comparing(MovieInfoCount::key);
+    };
+  }
+}
@@ -0,0 +1,16 @@
+package moviesinfoservice.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+
+  //the client deadline was tighter than the method timeout, the expiry says nothing about the health of Mongo
+  private final boolean clientDeadline;
+
+  public DeadlineExceededException(String message, Throwable cause, boolean clientDeadline) {
+    super(message, cause);
+    this.clientDeadline = clientDeadline;
+  }
+
+  public boolean isClientDeadline() {
+    return clientDeadline;
+  }
+}
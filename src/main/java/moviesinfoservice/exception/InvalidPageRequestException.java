@@ -0,0 +1,8 @@
+package moviesinfoservice.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+
+  public InvalidPageRequestException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package moviesinfoservice.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+  public PreconditionFailedException(String message) {
+    super(message);
+  }
+}
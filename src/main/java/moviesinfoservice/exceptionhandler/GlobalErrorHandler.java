@@ -2,7 +2,14 @@ package moviesinfoservice.exceptionhandler;
 
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.exception.DeadlineExceededException;
+import moviesinfoservice.exception.InvalidPageRequestException;
+import moviesinfoservice.exception.PreconditionFailedException;
+import moviesinfoservice.exception.ServiceUnavailableException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -25,4 +32,36 @@ public class GlobalErrorHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
   }
 
+  @ExceptionHandler(InvalidPageRequestException.class)
+  public ResponseEntity<String> handleInvalidPageRequest(InvalidPageRequestException ex){
+    log.error("Exception Caught in handleInvalidPageRequest : {} ",ex.getMessage());
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+  }
+
+  @ExceptionHandler({OptimisticLockingFailureException.class, DuplicateKeyException.class})
+  public ResponseEntity<String> handleConflict(RuntimeException ex){
+    log.warn("Exception Caught in handleConflict : {} ",ex.getMessage());
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+  }
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<String> handlePreconditionFailed(PreconditionFailedException ex){
+    log.warn("Exception Caught in handlePreconditionFailed : {} ",ex.getMessage());
+    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+  }
+
+  @ExceptionHandler(DeadlineExceededException.class)
+  public ResponseEntity<String> handleDeadlineExceeded(DeadlineExceededException ex){
+    log.warn("Exception Caught in handleDeadlineExceeded : {} ",ex.getMessage());
+    return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(ex.getMessage());
+  }
+
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<String> handleServiceUnavailable(ServiceUnavailableException ex){
+    log.warn("Exception Caught in handleServiceUnavailable : {} ",ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds())))
+        .body(ex.getMessage());
+  }
+
 }
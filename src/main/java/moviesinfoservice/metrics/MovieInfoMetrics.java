@@ -0,0 +1,67 @@
+package moviesinfoservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records a latency timer per service method, tagged with the exception that ended the call, and
+ * the number of elements emitted by each Flux.
+ */
+@Component
+public class MovieInfoMetrics {
+
+  static final String TIMER_NAME = "moviesinfo.service";
+  static final String ELEMENTS_NAME = "moviesinfo.service.elements";
+  static final String NO_EXCEPTION = "none";
+  static final String CANCELLED = "cancelled";
+
+  private final MeterRegistry meterRegistry;
+
+  public MovieInfoMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <T> Flux<T> timed(String method, Flux<T> flux) {
+    return Flux.defer(() -> {
+      var sample = Timer.start(meterRegistry);
+      var elements = new LongAdder();
+      return flux
+          .doOnNext(element -> elements.increment())
+          .doOnComplete(() -> record(method, sample, elements, NO_EXCEPTION))
+          .doOnError(ex -> record(method, sample, elements, ex.getClass().getSimpleName()))
+          .doOnCancel(() -> record(method, sample, elements, CANCELLED));
+    });
+  }
+
+  public <T> Mono<T> timed(String method, Mono<T> mono) {
+    return Mono.defer(() -> {
+      var sample = Timer.start(meterRegistry);
+      return mono
+          .doOnSuccess(value -> stop(method, sample, NO_EXCEPTION))
+          .doOnError(ex -> stop(method, sample, ex.getClass().getSimpleName()))
+          .doOnCancel(() -> stop(method, sample, CANCELLED));
+    });
+  }
+
+  private void record(String method, Timer.Sample sample, LongAdder elements, String exception) {
+    stop(method, sample, exception);
+    DistributionSummary.builder(ELEMENTS_NAME)
+        .tag("method", method)
+        .publishPercentileHistogram()
+        .register(meterRegistry)
+        .record(elements.sum());
+  }
+
+  private void stop(String method, Timer.Sample sample, String exception) {
+    sample.stop(Timer.builder(TIMER_NAME)
+        .tag("method", method)
+        .tag("exception", exception)
+        .publishPercentileHistogram()
+        .register(meterRegistry));
+  }
+}
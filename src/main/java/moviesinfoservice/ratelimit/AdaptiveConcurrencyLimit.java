@@ -0,0 +1,53 @@
+package moviesinfoservice.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limit: grows by one after a request faster than the target latency and shrinks
+ * by 10% after a slower one, between the min and max limits. Requests released without latency
+ * leave the limit as it is.
+ */
+final class AdaptiveConcurrencyLimit {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long targetLatencyNanos;
+  private final AtomicInteger limit;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  AdaptiveConcurrencyLimit(int minLimit, int maxLimit, long targetLatencyNanos) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.targetLatencyNanos = targetLatencyNanos;
+    this.limit = new AtomicInteger(maxLimit);
+  }
+
+  boolean tryAcquire() {
+    while (true) {
+      var current = inFlight.get();
+      if (current >= limit.get()) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  void release() {
+    inFlight.decrementAndGet();
+  }
+
+  void release(long latencyNanos) {
+    release();
+    if (latencyNanos > targetLatencyNanos) {
+      limit.updateAndGet(current -> Math.max(minLimit, (int) (current * 0.9)));
+    } else {
+      limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+    }
+  }
+
+  int limit() {
+    return limit.get();
+  }
+}
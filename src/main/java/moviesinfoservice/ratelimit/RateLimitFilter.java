@@ -0,0 +1,164 @@
+package moviesinfoservice.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import moviesinfoservice.config.RateLimitProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-client token bucket rate limiting (429) and per-route adaptive concurrency limit (503).
+ * Rejected requests are answered right away instead of being queued.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RateLimitFilter implements WebFilter {
+
+  private final RateLimitProperties rateLimitProperties;
+  private final List<LimitedRoute> routes = new ArrayList<>();
+  private final List<PathPattern> streamingPatterns = new ArrayList<>();
+  //idle buckets are evicted, a returning client starts again with a full bucket
+  private final Cache<BucketKey, TokenBucket> buckets;
+
+  public RateLimitFilter(RateLimitProperties rateLimitProperties, MeterRegistry meterRegistry) {
+    this.rateLimitProperties = rateLimitProperties;
+    this.buckets = Caffeine.newBuilder()
+        .expireAfterAccess(rateLimitProperties.getBucketIdleTimeout())
+        .maximumSize(rateLimitProperties.getMaxBuckets())
+        .build();
+    var routeProperties = rateLimitProperties.getRoutes();
+    for (var index = 0; index < routeProperties.size(); index++) {
+      routes.add(new LimitedRoute(index, routeProperties.get(index), meterRegistry));
+    }
+    rateLimitProperties.getStreamingPatterns()
+        .forEach(pattern -> streamingPatterns.add(PathPatternParser.defaultInstance.parse(pattern)));
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    if (!rateLimitProperties.isEnabled()) {
+      return chain.filter(exchange);
+    }
+    var route = route(exchange.getRequest());
+    if (route == null) {
+      return chain.filter(exchange);
+    }
+    var bucket = buckets.get(new BucketKey(route.index, clientKey(exchange.getRequest())),
+        key -> new TokenBucket(route.properties.getCapacity(), route.properties.getRefillPerSecond()));
+    if (!bucket.tryAcquire()) {
+      route.rateLimited.increment();
+      exchange.getResponse().getHeaders()
+          .set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, bucket.secondsUntilNextToken())));
+      return reject(exchange, HttpStatus.TOO_MANY_REQUESTS);
+    }
+    if (route.concurrencyLimit == null) {
+      route.admitted.increment();
+      return chain.filter(exchange);
+    }
+    if (!route.concurrencyLimit.tryAcquire()) {
+      route.shed.increment();
+      return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    route.admitted.increment();
+    if (isStreaming(exchange.getRequest())) {
+      return chain.filter(exchange)
+          .doFinally(signalType -> route.concurrencyLimit.release());
+    }
+    var start = System.nanoTime();
+    return chain.filter(exchange)
+        .doFinally(signalType -> route.concurrencyLimit.release(System.nanoTime() - start));
+  }
+
+  private boolean isStreaming(ServerHttpRequest request) {
+    var path = request.getPath().pathWithinApplication();
+    for (var pattern : streamingPatterns) {
+      if (pattern.matches(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+    exchange.getResponse().setStatusCode(status);
+    return exchange.getResponse().setComplete();
+  }
+
+  private LimitedRoute route(ServerHttpRequest request) {
+    var path = request.getPath().pathWithinApplication();
+    for (var route : routes) {
+      if (route.pattern.matches(path)) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  private String clientKey(ServerHttpRequest request) {
+    var apiKey = request.getHeaders().getFirst(rateLimitProperties.getClientKeyHeader());
+    if (apiKey != null && rateLimitProperties.getApiKeys().contains(apiKey)) {
+      return apiKey;
+    }
+    InetSocketAddress remoteAddress = request.getRemoteAddress();
+    return remoteAddress != null && remoteAddress.getAddress() != null
+        ? remoteAddress.getAddress().getHostAddress()
+        : "unknown";
+  }
+
+  private record BucketKey(int routeIndex, String clientKey) {
+
+  }
+
+  private static class LimitedRoute {
+
+    private final int index;
+    private final RateLimitProperties.Route properties;
+    private final PathPattern pattern;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    LimitedRoute(int index, RateLimitProperties.Route properties, MeterRegistry meterRegistry) {
+      this.index = index;
+      this.properties = properties;
+      this.pattern = PathPatternParser.defaultInstance.parse(properties.getPattern());
+      this.concurrencyLimit = properties.getMaxConcurrency() > 0
+          ? new AdaptiveConcurrencyLimit(properties.getMinConcurrency(), properties.getMaxConcurrency(),
+              properties.getTargetLatency().toNanos())
+          : null;
+      this.admitted = counter(meterRegistry, "admitted");
+      this.rateLimited = counter(meterRegistry, "rate_limited");
+      this.shed = counter(meterRegistry, "shed");
+      if (concurrencyLimit != null) {
+        Gauge.builder("moviesinfo.ratelimit.concurrency.limit", concurrencyLimit,
+                AdaptiveConcurrencyLimit::limit)
+            .tag("route", properties.getPattern())
+            .register(meterRegistry);
+      }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String outcome) {
+      return Counter.builder("moviesinfo.ratelimit.requests")
+          .tag("route", properties.getPattern())
+          .tag("outcome", outcome)
+          .register(meterRegistry);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package moviesinfoservice.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: the tokens are refilled lazily from the elapsed time when a request
+ * tries to take one.
+ */
+final class TokenBucket {
+
+  private record State(double tokens, long refilledAtNanos) {
+
+  }
+
+  private final double capacity;
+  private final double refillPerNano;
+  private final AtomicReference<State> state;
+
+  TokenBucket(double capacity, double refillPerSecond) {
+    this.capacity = capacity;
+    this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+    this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+  }
+
+  boolean tryAcquire() {
+    while (true) {
+      var current = state.get();
+      var now = System.nanoTime();
+      var tokens = available(current, now);
+      if (tokens < 1) {
+        return false;
+      }
+      if (state.compareAndSet(current, new State(tokens - 1, now))) {
+        return true;
+      }
+    }
+  }
+
+  long secondsUntilNextToken() {
+    var missing = 1 - available(state.get(), System.nanoTime());
+    return missing <= 0 ? 0 : (long) Math.ceil(missing / refillPerNano / TimeUnit.SECONDS.toNanos(1));
+  }
+
+  private double available(State current, long now) {
+    return Math.min(capacity, current.tokens() + (now - current.refilledAtNanos()) * refillPerNano);
+  }
+}
@@ -0,0 +1,28 @@
+package moviesinfoservice.repository;
+
+import moviesinfoservice.domain.MovieInfoIds;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+final class MovieInfoCriteria {
+
+  static final String DELETED_AT = "deletedAt";
+  private static final int BSON_OBJECT_ID = 7;
+
+  private MovieInfoCriteria() {
+  }
+
+  //null also matches the documents written before tombstones existed
+  static Criteria live() {
+    return Criteria.where(DELETED_AT).is(null);
+  }
+
+  //the ids strictly after the given one in _id order. $gt only matches values of the same BSON type, and strings
+  //sort before ObjectIds, so every ObjectId id also follows a string id
+  static Criteria idAfter(String movieInfoId) {
+    var after = Criteria.where("movieInfoId").gt(movieInfoId);
+    if (MovieInfoIds.isObjectId(movieInfoId)) {
+      return after;
+    }
+    return new Criteria().orOperator(after, Criteria.where("movieInfoId").type(BSON_OBJECT_ID));
+  }
+}
@@ -0,0 +1,114 @@
+package moviesinfoservice.repository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.IndexProperties;
+import moviesinfoservice.domain.MovieInfo;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Creates the indexes declared on {@link MovieInfo} at startup (unless disabled), then always compares
+ * them with the indexes present on the collection: declared but missing ones are reported (or fail the
+ * startup), present but undeclared ones are reported with their usage from {@code $indexStats}.
+ */
+@Component
+@Slf4j
+public class MovieInfoIndexInitializer implements ApplicationRunner {
+
+  private static final String ID_INDEX_KEY = "_id";
+  private static final String TEXT_INDEX_KEY = "_fts";
+
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+  private IndexProperties indexProperties;
+
+  public MovieInfoIndexInitializer(ReactiveMongoTemplate reactiveMongoTemplate,
+      IndexProperties indexProperties) {
+    this.reactiveMongoTemplate = reactiveMongoTemplate;
+    this.indexProperties = indexProperties;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    var declared = new MongoPersistentEntityIndexResolver(
+        reactiveMongoTemplate.getConverter().getMappingContext()).resolveIndexFor(MovieInfo.class);
+
+    //indexes are compared by their keys, unnamed @Indexed definitions get their name from the server
+    var declaredKeys = new HashSet<String>();
+    declared.forEach(index -> declaredKeys.add(indexKeys(index.getIndexKeys())));
+    //blocking is fine here, the runner executes on the main thread before traffic is served
+    if (indexProperties.isEnsureOnStartup()) {
+      var indexOps = reactiveMongoTemplate.indexOps(MovieInfo.class);
+      Flux.fromIterable(declared)
+          .concatMap(indexOps::ensureIndex)
+          .then()
+          .block();
+    }
+
+    var existing = new HashMap<String, String>();
+    var collection = reactiveMongoTemplate.getCollection(reactiveMongoTemplate.getCollectionName(MovieInfo.class));
+    collection
+        .flatMapMany(mongoCollection -> mongoCollection.listIndexes())
+        .doOnNext(index -> existing.put(indexKeys(index.get("key", Document.class)), index.getString("name")))
+        .blockLast();
+    //accesses by index name since the server started, empty when the user lacks the indexStats privilege
+    var accesses = new HashMap<String, Long>();
+    collection
+        .flatMapMany(mongoCollection -> mongoCollection.aggregate(List.of(new Document("$indexStats", new Document()))))
+        .doOnNext(stats -> accesses.put(stats.getString("name"),
+            ((Number) stats.get("accesses", Document.class).get("ops")).longValue()))
+        .onErrorResume(ex -> {
+          log.info("Could not read movieInfo index usage : {}", ex.getMessage());
+          return Mono.empty();
+        })
+        .blockLast();
+    verify(declaredKeys, existing, accesses);
+  }
+
+  private void verify(Set<String> declaredKeys, Map<String, String> existing, Map<String, Long> accesses) {
+    var missing = new HashSet<>(declaredKeys);
+    missing.removeAll(existing.keySet());
+    var undeclared = new HashMap<>(existing);
+    undeclared.keySet().removeAll(declaredKeys);
+    undeclared.remove(ID_INDEX_KEY);
+
+    if (!undeclared.isEmpty()) {
+      var usage = new HashMap<String, Long>();//null accesses when the usage could not be read
+      undeclared.values().forEach(name -> usage.put(name, accesses.get(name)));
+      log.warn("Indexes on movieInfo not declared by the entity, with their accesses since the server started : {}",
+          usage);
+    }
+    var unused = existing.values().stream()
+        .filter(name -> accesses.getOrDefault(name, -1L) == 0)
+        .toList();
+    if (!unused.isEmpty()) {
+      log.info("Indexes on movieInfo never used since the server started : {}", unused);
+    }
+    if (!missing.isEmpty()) {
+      log.error("Indexes declared on movieInfo are missing, keys : {}", missing);
+      if (indexProperties.isFailOnMissing()) {
+        throw new IllegalStateException("Missing movieInfo indexes : " + missing);
+      }
+    }
+    log.info("movieInfo indexes verified : {}", existing.values());
+  }
+
+  //the server reports the fields of a text index as _fts/_ftsx, the entity declares them with type "text"
+  private String indexKeys(Document keys) {
+    var fields = new LinkedHashSet<String>();
+    keys.forEach((field, type) -> fields.add(
+        "text".equals(type) || field.startsWith(TEXT_INDEX_KEY) ? TEXT_INDEX_KEY : field));
+    return String.join(",", fields);
+  }
+}
@@ -0,0 +1,41 @@
+package moviesinfoservice.repository;
+
+import java.util.Collection;
+import moviesinfoservice.domain.MovieInfo;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface MovieInfoSearchRepository {
+
+  //the CRUD reads are overridden so that tombstoned movieInfos are never returned.
+  //findById, findAll, findAllById, findByYear and findPage go through MovieInfoRouting and may be served by a secondary
+  Mono<MovieInfo> findById(String movieInfoId);
+
+  Flux<MovieInfo> findAll();
+
+  Flux<MovieInfo> findAll(Sort sort);
+
+  Flux<MovieInfo> findAllById(Iterable<String> movieInfoIds);
+
+  Mono<Boolean> existsById(String movieInfoId);
+
+  Mono<Long> count();
+
+  Flux<MovieInfo> findByYear(Integer year);
+
+  //live movieInfos of the year and/or among the ids sorted by movieInfoId, the filters left null are ignored
+  Flux<MovieInfo> findMatching(Integer year, Collection<String> movieInfoIds);
+
+  //keyset page sorted by movieInfoId, starting after the given id; only the given fields are read when not empty
+  Flux<MovieInfo> findPage(Integer year, String afterMovieInfoId, int limit, Collection<String> fields);
+
+  //full-text search over name and cast, most relevant first
+  Flux<MovieInfo> searchByText(String text, int limit);
+
+  //case-sensitive name prefix lookup served by the name index
+  Flux<MovieInfo> findByNamePrefix(String prefix, int limit);
+
+  //every movieInfo after the given id sorted by movieInfoId, read from one cursor fetching batchSize documents at a time
+  Flux<MovieInfo> streamAfter(String afterMovieInfoId, int batchSize);
+}
@@ -0,0 +1,147 @@
+package moviesinfoservice.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.routing.MovieInfoRouting;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class MovieInfoSearchRepositoryImpl implements MovieInfoSearchRepository {
+
+  private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+  private MovieInfoRouting movieInfoRouting;
+
+  public MovieInfoSearchRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate,
+      MovieInfoRouting movieInfoRouting) {
+    this.reactiveMongoTemplate = reactiveMongoTemplate;
+    this.movieInfoRouting = movieInfoRouting;
+  }
+
+  @Override
+  public Mono<MovieInfo> findById(String movieInfoId) {
+    var query = Query.query(MovieInfoCriteria.live().and("movieInfoId").is(movieInfoId));
+    return movieInfoRouting.findOne(query, MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> findAll() {
+    var query = Query.query(MovieInfoCriteria.live());
+    return movieInfoRouting.find(query, MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> findAll(Sort sort) {
+    var query = Query.query(MovieInfoCriteria.live()).with(sort);
+    return movieInfoRouting.find(query, MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> findAllById(Iterable<String> movieInfoIds) {
+    var ids = new ArrayList<String>();
+    movieInfoIds.forEach(ids::add);
+    var query = Query.query(MovieInfoCriteria.live().and("movieInfoId").in(ids));
+    return movieInfoRouting.find(query, MovieInfo.class);
+  }
+
+  @Override
+  public Mono<Boolean> existsById(String movieInfoId) {
+    var query = Query.query(MovieInfoCriteria.live().and("movieInfoId").is(movieInfoId));
+    return reactiveMongoTemplate.exists(query, MovieInfo.class);
+  }
+
+  @Override
+  public Mono<Long> count() {
+    return reactiveMongoTemplate.count(Query.query(MovieInfoCriteria.live()), MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> findByYear(Integer year) {
+    var query = Query.query(MovieInfoCriteria.live().and("year").is(year));
+    return movieInfoRouting.find(query, MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> findMatching(Integer year, Collection<String> movieInfoIds) {
+    var criteria = MovieInfoCriteria.live();
+    if (year != null) {
+      criteria.and("year").is(year);
+    }
+    if (movieInfoIds != null && !movieInfoIds.isEmpty()) {
+      criteria.and("movieInfoId").in(movieInfoIds);
+    }
+    return reactiveMongoTemplate.find(Query.query(criteria).with(Sort.by("movieInfoId")), MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> findPage(Integer year, String afterMovieInfoId, int limit,
+      Collection<String> fields) {
+    var criteria = MovieInfoCriteria.live();
+    if (year != null) {
+      criteria.and("year").is(year);
+    }
+    if (afterMovieInfoId != null) {
+      criteria.andOperator(MovieInfoCriteria.idAfter(afterMovieInfoId));
+    }
+    var query = Query.query(criteria)
+        .with(Sort.by("movieInfoId"))
+        .limit(limit);
+    //the projection is pushed down to Mongo, _id is always returned and keeps the cursor working. The version is
+    //kept as well, the page ETag is made of the ids and versions
+    fields.forEach(query.fields()::include);
+    if (!fields.isEmpty()) {
+      query.fields().include("version");
+    }
+    return movieInfoRouting.find(query, MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> streamAfter(String afterMovieInfoId, int batchSize) {
+    var criteria = MovieInfoCriteria.live();
+    if (afterMovieInfoId != null) {
+      criteria.andOperator(MovieInfoCriteria.idAfter(afterMovieInfoId));
+    }
+    //sorted on _id the scan follows the _id index, the driver only asks for a new batch once the last one is consumed
+    var query = Query.query(criteria)
+        .with(Sort.by("movieInfoId"))
+        .cursorBatchSize(batchSize);
+    return reactiveMongoTemplate.find(query, MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> searchByText(String text, int limit) {
+    var query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+        .sortByScore()
+        .limit(limit);
+    query.addCriteria(MovieInfoCriteria.live());
+    return movieInfoRouting.find(query, MovieInfo.class);
+  }
+
+  @Override
+  public Flux<MovieInfo> findByNamePrefix(String prefix, int limit) {
+    //an anchored regex made of literal characters only is turned into a range scan on the index
+    var query = Query.query(MovieInfoCriteria.live().and("name").regex("^" + escapeRegex(prefix)))
+        .with(Sort.by("name"))
+        .limit(limit);
+    query.fields().include("name", "year");
+    return movieInfoRouting.find(query, MovieInfo.class);
+  }
+
+  private String escapeRegex(String value) {
+    var escaped = new StringBuilder(value.length() + 8);
+    for (var c : value.toCharArray()) {
+      if (REGEX_METACHARACTERS.indexOf(c) >= 0) {
+        escaped.append('\\');
+      }
+      escaped.append(c);
+    }
+    return escaped.toString();
+  }
+}
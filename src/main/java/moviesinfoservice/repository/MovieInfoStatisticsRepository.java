@@ -0,0 +1,118 @@
+package moviesinfoservice.repository;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.limit;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.unwind;
+
+import java.util.ArrayList;
+import java.util.Map;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoCount;
+import moviesinfoservice.domain.MovieInfoStatistic;
+import moviesinfoservice.domain.MovieInfoStatisticType;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Counts of movieInfos per year, decade, cast member and release month, computed by aggregation
+ * pipelines over movieInfo or read from the materialized movieInfoStatistics collection.
+ */
+@Repository
+public class MovieInfoStatisticsRepository {
+
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+
+  public MovieInfoStatisticsRepository(ReactiveMongoTemplate reactiveMongoTemplate) {
+    this.reactiveMongoTemplate = reactiveMongoTemplate;
+  }
+
+  public Flux<MovieInfoCount> aggregate(MovieInfoStatisticType type, int limit) {
+    var pipeline = new ArrayList<AggregationOperation>();
+    pipeline.add(match(MovieInfoCriteria.live()));
+    switch (type) {
+      case YEAR -> pipeline.add(group("year").count().as("count"));
+      case DECADE -> {
+        pipeline.add(project().and(ArithmeticOperators.Subtract.valueOf("year")
+            .subtract(ArithmeticOperators.Mod.valueOf("year").mod(10))).as("decade"));
+        pipeline.add(group("decade").count().as("count"));
+      }
+      case CAST -> {
+        pipeline.add(unwind("cast"));
+        pipeline.add(group("cast").count().as("count"));
+        pipeline.add(sort(Direction.DESC, "count"));
+      }
+      case RELEASE_MONTH -> {
+        pipeline.add(match(Criteria.where("release_date").ne(null)));
+        pipeline.add(project().and(DateOperators.dateOf("release_date").toString("%Y-%m")).as("month"));
+        pipeline.add(group("month").count().as("count"));
+      }
+    }
+    if (type != MovieInfoStatisticType.CAST) {
+      pipeline.add(sort(Direction.ASC, "_id"));
+    }
+    pipeline.add(limit(limit));
+    //the group and sort stages may spill to disk instead of failing at the 100 MB stage limit, the cast one
+    //holds a group per cast member of the catalog
+    var aggregation = newAggregation(MovieInfo.class, pipeline)
+        .withOptions(Aggregation.newAggregationOptions().allowDiskUse(true).build());
+    return reactiveMongoTemplate.aggregate(aggregation, Document.class)
+        .filter(document -> document.get("_id") != null)
+        .map(document -> new MovieInfoCount(String.valueOf(document.get("_id")),
+            ((Number) document.get("count")).longValue()));
+  }
+
+  public Flux<MovieInfoCount> findMaterialized(MovieInfoStatisticType type, int limit) {
+    var query = Query.query(Criteria.where("type").is(type).and("count").gt(0))
+        .with(Sort.by(Direction.DESC, "count"))
+        .limit(limit);
+    return reactiveMongoTemplate.find(query, MovieInfoStatistic.class)
+        .map(statistic -> new MovieInfoCount(statistic.getKey(), statistic.getCount()));
+  }
+
+  public Mono<Void> increment(Map<MovieInfoStatistic, Long> deltas) {
+    return Flux.fromIterable(deltas.entrySet())
+        .flatMap(delta -> reactiveMongoTemplate.upsert(
+            Query.query(Criteria.where("id").is(delta.getKey().getId())),
+            new Update()
+                .inc("count", delta.getValue())
+                .setOnInsert("type", delta.getKey().getType())
+                .setOnInsert("key", delta.getKey().getKey()),
+            MovieInfoStatistic.class))
+        .then();
+  }
+
+  public Mono<Long> countMaterialized() {
+    return reactiveMongoTemplate.count(new Query(), MovieInfoStatistic.class);
+  }
+
+  //replaces the materialized counters with the result of the aggregation pipelines
+  public Mono<Void> rebuild() {
+    return reactiveMongoTemplate.indexOps(MovieInfoStatistic.class)
+        .ensureIndex(new Index().on("type", Direction.ASC).on("count", Direction.DESC))
+        .then(reactiveMongoTemplate.remove(new Query(), MovieInfoStatistic.class))
+        .thenMany(Flux.fromArray(MovieInfoStatisticType.values()))
+        .concatMap(type -> aggregate(type, Integer.MAX_VALUE)
+            .map(count -> new MovieInfoStatistic(type.name() + ":" + count.key(), type, count.key(),
+                count.count()))
+            .buffer(1000)
+            .concatMap(statistics -> reactiveMongoTemplate.insertAll(statistics)))
+        .then();
+  }
+}
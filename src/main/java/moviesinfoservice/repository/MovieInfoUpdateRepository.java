@@ -0,0 +1,37 @@
+package moviesinfoservice.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoPatch;
+import reactor.core.publisher.Mono;
+
+public interface MovieInfoUpdateRepository {
+
+  //CRUD save overridden to go through MovieInfoRouting, which hands the write operation time to the causal token
+  <S extends MovieInfo> Mono<S> save(S movieInfo);
+
+  //CRUD insert overridden likewise. An id held by a tombstone is written over it, one held by a live movieInfo fails
+  //with DuplicateKeyException
+  <S extends MovieInfo> Mono<S> insert(S movieInfo);
+
+  //unordered insertMany, every movieInfo is attempted whatever fails before it. Emits the error of each movieInfo
+  //not written by its index in the list, the written ones get their id, version and lastModified set
+  Mono<Map<Integer, String>> insertUnordered(List<MovieInfo> movieInfos);
+
+  //single round trip $set of the non null fields, errors with OptimisticLockingFailureException on a version mismatch.
+  //emits the document as it was before the patch, MovieInfoPatch.applyTo() gives the patched one
+  Mono<MovieInfo> patch(String movieInfoId, MovieInfoPatch patch, Instant lastModified);
+
+  //single round trip tombstoning, emits the document as it was before. A non null version makes it conditional like patch()
+  Mono<MovieInfo> softDelete(String movieInfoId, Long version, Instant deletedAt);
+
+  //tombstones the live movieInfos among the ids, emits the ids of those this call tombstoned (at millisecond precision,
+  //deletedAt tells them apart from the ones a concurrent delete got first)
+  Mono<List<String>> softDeleteAll(Collection<String> movieInfoIds, Instant deletedAt);
+
+  //physically removes up to limit movieInfos tombstoned before the given instant, emits how many were
+  Mono<Long> purgeTombstones(Instant deletedBefore, int limit);
+}
@@ -0,0 +1,249 @@
+package moviesinfoservice.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.result.DeleteResult;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoPatch;
+import moviesinfoservice.routing.MovieInfoRouting;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class MovieInfoUpdateRepositoryImpl implements MovieInfoUpdateRepository {
+
+  private static final InsertManyOptions UNORDERED = new InsertManyOptions().ordered(false);
+  private static final int DUPLICATE_KEY = 11000;
+  private static final FindOneAndUpdateOptions UPSERT = new FindOneAndUpdateOptions()
+      .upsert(true)
+      .returnDocument(ReturnDocument.AFTER);
+  private static final FindOneAndUpdateOptions UPDATE = new FindOneAndUpdateOptions()
+      .returnDocument(ReturnDocument.AFTER);
+
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+  private MovieInfoRouting movieInfoRouting;
+
+  public MovieInfoUpdateRepositoryImpl(ReactiveMongoTemplate reactiveMongoTemplate,
+      MovieInfoRouting movieInfoRouting) {
+    this.reactiveMongoTemplate = reactiveMongoTemplate;
+    this.movieInfoRouting = movieInfoRouting;
+  }
+
+  @Override
+  public <S extends MovieInfo> Mono<S> save(S movieInfo) {
+    //the template does a versioned update of a movieInfo with a version, like the CRUD save. Without one it
+    //would insert it, which fails for a document written before versioning
+    if (movieInfo.getVersion() == null && movieInfo.getMovieInfoId() != null) {
+      return movieInfoRouting.write(operations -> replace(operations, movieInfo));
+    }
+    return movieInfoRouting.write(operations -> operations.save(movieInfo));
+  }
+
+  @Override
+  public <S extends MovieInfo> Mono<S> insert(S movieInfo) {
+    return movieInfoRouting.write(operations -> operations.insert(movieInfo)
+        .onErrorResume(DuplicateKeyException.class, ex -> Mono.defer(() -> {
+          movieInfo.setLastModified(Instant.now().truncatedTo(ChronoUnit.MILLIS));//bypasses the auditing
+          var document = new Document();
+          operations.getConverter().write(movieInfo, document);
+          return replaceTombstone(operations, document)
+              .map(replaced -> {
+                movieInfo.setVersion(((Number) replaced.get("version")).longValue());
+                return movieInfo;
+              })
+              .switchIfEmpty(Mono.error(ex));
+        })));
+  }
+
+  //replaced by id (or inserted) in one round trip, tombstone included
+  private <S extends MovieInfo> Mono<S> replace(ReactiveMongoOperations operations, S movieInfo) {
+    return Mono.defer(() -> {
+      movieInfo.setLastModified(Instant.now().truncatedTo(ChronoUnit.MILLIS));//bypasses the auditing
+      var document = new Document();
+      operations.getConverter().write(movieInfo, document);
+      return operations.execute(MovieInfo.class, collection -> collection.findOneAndUpdate(
+              new Document("_id", document.get("_id")), replacement(document), UPSERT))
+          .next()
+          .map(replaced -> {
+            movieInfo.setVersion(((Number) replaced.get("version")).longValue());
+            return movieInfo;
+          });
+    });
+  }
+
+  //pipeline replacing the stored document, the version incremented from the stored one, 0 when there is none.
+  //$literal keeps the values starting with $ from being read as field paths
+  private static List<Document> replacement(Document document) {
+    var version = new Document("$add", List.of(new Document("$ifNull", List.of("$version", -1L)), 1L));
+    return List.of(new Document("$replaceWith", new Document("$mergeObjects",
+        List.of(new Document("$literal", document), new Document("version", version)))));
+  }
+
+  @Override
+  public Mono<Map<Integer, String>> insertUnordered(List<MovieInfo> movieInfos) {
+    var lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);//the precision stored by mongo
+    return movieInfoRouting.write(operations -> Mono.defer(() -> {
+      //converted by hand as the template only inserts ordered: a new document starts at version 0 like an insert
+      //through the template, and the driver adds the _id of the documents that have none
+      var documents = new ArrayList<Document>(movieInfos.size());
+      for (var movieInfo : movieInfos) {
+        movieInfo.setVersion(0L);
+        movieInfo.setLastModified(lastModified);
+        var document = new Document();
+        operations.getConverter().write(movieInfo, document);
+        documents.add(document);
+      }
+      return operations.execute(MovieInfo.class, collection -> collection.insertMany(documents, UNORDERED))
+          .then(Mono.fromSupplier(() -> Map.<Integer, BulkWriteError>of()))
+          .onErrorResume(ex -> writeErrors(ex) != null, ex -> Mono.just(writeErrors(ex)))
+          .flatMap(errors -> recreate(operations, movieInfos, documents, errors))
+          .doOnNext(errors -> {
+            for (int i = 0; i < movieInfos.size(); i++) {
+              if (!errors.containsKey(i)) {
+                var id = documents.get(i).get("_id");
+                movieInfos.get(i).setMovieInfoId(id instanceof ObjectId objectId ? objectId.toHexString() : id.toString());
+              }
+            }
+          });
+    }));
+  }
+
+  //an id refused as duplicate may be held by a tombstone waiting for the purge, which the movieInfo replaces.
+  //Emits the message of each error left by index
+  private Mono<Map<Integer, String>> recreate(ReactiveMongoOperations operations, List<MovieInfo> movieInfos,
+      List<Document> documents, Map<Integer, BulkWriteError> errors) {
+    var messages = new HashMap<Integer, String>();
+    errors.forEach((index, error) -> messages.put(index, error.getMessage()));
+    return Flux.fromIterable(errors.values())
+        .filter(error -> error.getCode() == DUPLICATE_KEY && documents.get(error.getIndex()).get("_id") != null)
+        .concatMap(error -> replaceTombstone(operations, documents.get(error.getIndex()))
+            .doOnNext(replaced -> {
+              messages.remove(error.getIndex());
+              movieInfos.get(error.getIndex()).setVersion(((Number) replaced.get("version")).longValue());
+            }))
+        .then(Mono.fromSupplier(() -> messages));
+  }
+
+  //emits the document written over the tombstone holding its id, nothing when a live movieInfo holds it
+  private static Mono<Document> replaceTombstone(ReactiveMongoOperations operations, Document document) {
+    var tombstone = new Document("_id", document.get("_id"))
+        .append(MovieInfoCriteria.DELETED_AT, new Document("$ne", null));
+    return operations.execute(MovieInfo.class, collection -> collection.findOneAndUpdate(
+            tombstone, replacement(document), UPDATE))
+        .next();
+  }
+
+  @Override
+  public Mono<MovieInfo> patch(String movieInfoId, MovieInfoPatch patch, Instant lastModified) {
+    var update = new Update().inc("version", 1).set("lastModified", lastModified);
+    if (patch.name() != null) {
+      update.set("name", patch.name());
+    }
+    if (patch.year() != null) {
+      update.set("year", patch.year());
+    }
+    if (patch.cast() != null) {
+      update.set("cast", patch.cast());
+    }
+    if (patch.release_date() != null) {
+      update.set("release_date", patch.release_date());
+    }
+    return movieInfoRouting.write(operations -> operations.findAndModify(versionedQuery(movieInfoId, patch.version()),
+            update, FindAndModifyOptions.options().returnNew(false), MovieInfo.class)
+        .switchIfEmpty(staleVersion(operations, movieInfoId, patch.version())));
+  }
+
+  @Override
+  public Mono<MovieInfo> softDelete(String movieInfoId, Long version, Instant deletedAt) {
+    return movieInfoRouting.write(operations -> operations.findAndModify(versionedQuery(movieInfoId, version),
+            tombstone(deletedAt), FindAndModifyOptions.options().returnNew(false), MovieInfo.class)
+        .switchIfEmpty(staleVersion(operations, movieInfoId, version)));
+  }
+
+  @Override
+  public Mono<List<String>> softDeleteAll(Collection<String> movieInfoIds, Instant deletedAt) {
+    var tombstoned = Query.query(Criteria.where("movieInfoId").in(movieInfoIds)
+        .and(MovieInfoCriteria.DELETED_AT).is(deletedAt));
+    tombstoned.fields().include("movieInfoId");
+    return movieInfoRouting.write(operations -> operations.updateMulti(
+            Query.query(MovieInfoCriteria.live().and("movieInfoId").in(movieInfoIds)), tombstone(deletedAt),
+            MovieInfo.class)
+        .flatMap(result -> result.getModifiedCount() == 0
+            ? Mono.just(List.<String>of())
+            : operations.find(tombstoned, MovieInfo.class).map(MovieInfo::getMovieInfoId).collectList()));
+  }
+
+  @Override
+  public Mono<Long> purgeTombstones(Instant deletedBefore, int limit) {
+    //the ids are read first as a remove cannot be limited, the sparse deletedAt index serves both queries
+    var tombstones = Query.query(Criteria.where(MovieInfoCriteria.DELETED_AT).lt(deletedBefore)).limit(limit);
+    tombstones.fields().include("movieInfoId");
+    return reactiveMongoTemplate.find(tombstones, MovieInfo.class)
+        .map(MovieInfo::getMovieInfoId)
+        .collectList()
+        .flatMap(ids -> ids.isEmpty()
+            ? Mono.just(0L)
+            : reactiveMongoTemplate.remove(Query.query(Criteria.where("movieInfoId").in(ids)
+                    .and(MovieInfoCriteria.DELETED_AT).lt(deletedBefore)), MovieInfo.class)
+                .map(DeleteResult::getDeletedCount));
+  }
+
+  //the write errors by index of a bulk write refused document by document, null for any other failure (connectivity,
+  //write concern) after which it is unknown what was written. Spring translates the driver exception but keeps it as cause
+  private static Map<Integer, BulkWriteError> writeErrors(Throwable ex) {
+    for (var cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof MongoBulkWriteException bulkWriteException) {
+        if (bulkWriteException.getWriteConcernError() != null) {
+          return null;
+        }
+        var errors = new HashMap<Integer, BulkWriteError>();
+        bulkWriteException.getWriteErrors().forEach(error -> errors.put(error.getIndex(), error));
+        return errors;
+      }
+    }
+    return null;
+  }
+
+  private Update tombstone(Instant deletedAt) {
+    return new Update().set(MovieInfoCriteria.DELETED_AT, deletedAt).set("lastModified", deletedAt).inc("version", 1);
+  }
+
+  private Query versionedQuery(String movieInfoId, Long version) {
+    var criteria = MovieInfoCriteria.live().and("movieInfoId").is(movieInfoId);
+    if (version != null) {
+      criteria.and("version").is(version);
+    }
+    return Query.query(criteria);
+  }
+
+  //no match on a conditional write: the id is unknown or the version moved, the extra query only runs then
+  private Mono<MovieInfo> staleVersion(ReactiveMongoOperations operations, String movieInfoId, Long version) {
+    return Mono.defer(() -> version == null
+        ? Mono.empty()
+        : operations.exists(Query.query(MovieInfoCriteria.live().and("movieInfoId").is(movieInfoId)),
+                MovieInfo.class)
+            .flatMap(exists -> exists
+                ? Mono.error(new OptimisticLockingFailureException(
+                    "movieInfo " + movieInfoId + " was modified, version " + version + " is stale"))
+                : Mono.empty()));
+  }
+}
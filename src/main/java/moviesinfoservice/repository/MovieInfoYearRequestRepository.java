@@ -0,0 +1,46 @@
+package moviesinfoservice.repository;
+
+import java.util.Map;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Request counts of the year lookups in the movieInfoYearRequests collection, one document per
+ * year, summed over all the instances.
+ */
+@Repository
+public class MovieInfoYearRequestRepository {
+
+  private static final String COLLECTION = "movieInfoYearRequests";
+
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+
+  public MovieInfoYearRequestRepository(ReactiveMongoTemplate reactiveMongoTemplate) {
+    this.reactiveMongoTemplate = reactiveMongoTemplate;
+  }
+
+  public Mono<Void> increment(Map<Integer, Long> counts) {
+    return Flux.fromIterable(counts.entrySet())
+        .flatMap(count -> reactiveMongoTemplate.upsert(
+            Query.query(Criteria.where("_id").is(count.getKey())),
+            new Update().inc("count", count.getValue()),
+            COLLECTION))
+        .then();
+  }
+
+  public Flux<Integer> findMostRequested(int limit) {
+    var query = new Query()
+        .with(Sort.by(Direction.DESC, "count"))
+        .limit(limit);
+    return reactiveMongoTemplate.find(query, Document.class, COLLECTION)
+        .map(document -> ((Number) document.get("_id")).intValue());
+  }
+}
@@ -0,0 +1,57 @@
+package moviesinfoservice.resilience;
+
+import java.time.Duration;
+import java.util.Optional;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Point in time by which a request has to be answered, carried in the Reactor context. It is set
+ * from the {@value #REQUEST_TIMEOUT_HEADER} header by the {@link DeadlineFilter}, narrowed by the
+ * per method timeouts and turned into the maxTimeMS of the Mongo queries by MovieInfoRouting.
+ * Relative to System.nanoTime() so that it does not depend on the client clock.
+ */
+public final class Deadline {
+
+  //milliseconds the client is willing to wait
+  public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+  private final long deadlineNanos;
+  private final boolean client;
+
+  private Deadline(long deadlineNanos, boolean client) {
+    this.deadlineNanos = deadlineNanos;
+    this.client = client;
+  }
+
+  static Deadline requestedByClient(Duration timeout) {
+    return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+  }
+
+  public static Optional<Deadline> from(ContextView context) {
+    return context.getOrEmpty(Deadline.class);
+  }
+
+  //the earliest of the deadline already in the context and the given timeout
+  static Deadline within(ContextView context, Duration timeout) {
+    var candidate = new Deadline(System.nanoTime() + timeout.toNanos(), false);
+    return from(context).filter(current -> current.deadlineNanos <= candidate.deadlineNanos).orElse(candidate);
+  }
+
+  Context putIn(Context context) {
+    return context.put(Deadline.class, this);
+  }
+
+  //an expiry of a client deadline is the client's choice rather than a sign of a degraded Mongo
+  boolean isClientDeadline() {
+    return client;
+  }
+
+  public Duration remaining() {
+    return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+  }
+
+  public boolean isExpired() {
+    return deadlineNanos - System.nanoTime() <= 0;
+  }
+}
@@ -0,0 +1,51 @@
+package moviesinfoservice.resilience;
+
+import java.time.Duration;
+import moviesinfoservice.config.TimeoutProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Turns the {@value Deadline#REQUEST_TIMEOUT_HEADER} header into a {@link Deadline} in the context
+ * of the request, capped by moviesinfo.timeouts.max-timeout. A missing or unreadable header leaves
+ * the request to the per method timeouts.
+ */
+@Component
+public class DeadlineFilter implements WebFilter {
+
+  private final TimeoutProperties timeoutProperties;
+
+  public DeadlineFilter(TimeoutProperties timeoutProperties) {
+    this.timeoutProperties = timeoutProperties;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    var timeout = requestTimeout(exchange.getRequest().getHeaders().getFirst(Deadline.REQUEST_TIMEOUT_HEADER));
+    if (timeout == null) {
+      return chain.filter(exchange);
+    }
+    //taken when the request arrives, the time spent in the filters before the handler counts
+    var deadline = Deadline.requestedByClient(timeout);
+    return chain.filter(exchange).contextWrite(deadline::putIn);
+  }
+
+  private Duration requestTimeout(String header) {
+    if (header == null || header.isBlank()) {
+      return null;
+    }
+    try {
+      var millis = Long.parseLong(header.trim());
+      if (millis <= 0) {
+        return null;
+      }
+      var timeout = Duration.ofMillis(millis);
+      return timeout.compareTo(timeoutProperties.getMaxTimeout()) > 0 ? timeoutProperties.getMaxTimeout() : timeout;
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+  }
+}
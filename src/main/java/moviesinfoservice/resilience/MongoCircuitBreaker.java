@@ -0,0 +1,187 @@
+package moviesinfoservice.resilience;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.MongoSocketException;
+import com.mongodb.MongoTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.CircuitBreakerProperties;
+import moviesinfoservice.exception.DeadlineExceededException;
+import moviesinfoservice.exception.ServiceUnavailableException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Count based circuit breaker in front of Mongo. It opens when the failure rate of the last
+ * window-size calls reaches the threshold, then rejects the calls with a 503 for open-duration,
+ * after which half-open-calls trial calls decide whether it closes or opens again. Only timeouts
+ * and connectivity errors count as failures, a version conflict or a duplicate key does not.
+ */
+@Component
+@Slf4j
+public class MongoCircuitBreaker {
+
+  enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private final CircuitBreakerProperties circuitBreakerProperties;
+  private final Counter rejected;
+  //ring of the last outcomes, true for a failure
+  private final boolean[] outcomes;
+  private int next;
+  private int recorded;
+  private int failures;
+  private State state = State.CLOSED;
+  private long openedAtNanos;
+  private int halfOpenPermits;
+  private int halfOpenSuccesses;
+
+  public MongoCircuitBreaker(CircuitBreakerProperties circuitBreakerProperties, MeterRegistry meterRegistry) {
+    this.circuitBreakerProperties = circuitBreakerProperties;
+    this.outcomes = new boolean[Math.max(1, circuitBreakerProperties.getWindowSize())];
+    this.rejected = Counter.builder("moviesinfo.circuit.rejected").register(meterRegistry);
+    Gauge.builder("moviesinfo.circuit.state", this, breaker -> breaker.state().ordinal())
+        .description("0 closed, 1 open, 2 half-open")
+        .register(meterRegistry);
+  }
+
+  //throws ServiceUnavailableException when the call is not let through, a permitted call must report its outcome
+  void acquire() {
+    if (!circuitBreakerProperties.isEnabled()) {
+      return;
+    }
+    synchronized (this) {
+      if (state == State.OPEN) {
+        var openFor = Duration.ofNanos(System.nanoTime() - openedAtNanos);
+        if (openFor.compareTo(circuitBreakerProperties.getOpenDuration()) < 0) {
+          rejected.increment();
+          throw new ServiceUnavailableException("Mongo is degraded, the call was rejected by the circuit breaker",
+              circuitBreakerProperties.getOpenDuration().minus(openFor));
+        }
+        transition(State.HALF_OPEN);
+      }
+      if (state == State.HALF_OPEN) {
+        if (halfOpenPermits == 0) {
+          rejected.increment();
+          throw new ServiceUnavailableException("Mongo is degraded, the circuit breaker is probing it",
+              circuitBreakerProperties.getOpenDuration());
+        }
+        halfOpenPermits--;
+      }
+    }
+  }
+
+  void onSuccess() {
+    if (!circuitBreakerProperties.isEnabled()) {
+      return;
+    }
+    synchronized (this) {
+      if (state == State.HALF_OPEN) {
+        if (++halfOpenSuccesses >= circuitBreakerProperties.getHalfOpenCalls()) {
+          transition(State.CLOSED);
+        }
+      } else if (state == State.CLOSED) {
+        record(false);
+      }
+    }
+  }
+
+  void onError(Throwable ex) {
+    if (!circuitBreakerProperties.isEnabled()) {
+      return;
+    }
+    if (!isFailure(ex)) {
+      onSuccess();
+      return;
+    }
+    synchronized (this) {
+      if (state == State.HALF_OPEN) {
+        transition(State.OPEN);
+      } else if (state == State.CLOSED) {
+        record(true);
+        if (recorded >= circuitBreakerProperties.getMinimumCalls()
+            && (double) failures / recorded >= circuitBreakerProperties.getFailureRateThreshold()) {
+          transition(State.OPEN);
+        }
+      }
+    }
+  }
+
+  //a cancelled call says nothing about Mongo, its trial permit is given back
+  void onCancel() {
+    if (!circuitBreakerProperties.isEnabled()) {
+      return;
+    }
+    synchronized (this) {
+      if (state == State.HALF_OPEN) {
+        halfOpenPermits++;
+      }
+    }
+  }
+
+  synchronized State state() {
+    return state;
+  }
+
+  static boolean isFailure(Throwable ex) {
+    for (var cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof DeadlineExceededException deadlineExceeded) {
+        return !deadlineExceeded.isClientDeadline();
+      }
+      //a version conflict is a TransientDataAccessException too, but Mongo answered it
+      if (cause instanceof ConcurrencyFailureException) {
+        return false;
+      }
+      if (cause instanceof TimeoutException
+          || cause instanceof TransientDataAccessException || cause instanceof DataAccessResourceFailureException
+          || cause instanceof MongoTimeoutException || cause instanceof MongoSocketException
+          || cause instanceof MongoExecutionTimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  //called holding the lock
+  private void record(boolean failure) {
+    if (recorded == outcomes.length) {
+      if (outcomes[next]) {
+        failures--;
+      }
+    } else {
+      recorded++;
+    }
+    outcomes[next] = failure;
+    if (failure) {
+      failures++;
+    }
+    next = (next + 1) % outcomes.length;
+  }
+
+  //called holding the lock
+  private void transition(State newState) {
+    log.warn("Mongo circuit breaker {} -> {} (failures {}/{})", state, newState, failures, recorded);
+    state = newState;
+    switch (newState) {
+      case OPEN -> openedAtNanos = System.nanoTime();
+      case HALF_OPEN -> {
+        halfOpenPermits = circuitBreakerProperties.getHalfOpenCalls();
+        halfOpenSuccesses = 0;
+      }
+      case CLOSED -> {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+      }
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package moviesinfoservice.resilience;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import moviesinfoservice.config.HedgingProperties;
+import moviesinfoservice.config.TimeoutProperties;
+import moviesinfoservice.exception.DeadlineExceededException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Timeouts, circuit breaking and hedging of the service calls to Mongo.
+ * <ul>
+ *   <li>{@code bounded} gives the call the earliest of the client deadline and the method timeout,
+ *   and puts it in the context for the maxTimeMS of the queries. An expiry is a 504.</li>
+ *   <li>{@code guard} also goes through the {@link MongoCircuitBreaker}, which fails fast with a 503
+ *   while Mongo is degraded.</li>
+ *   <li>{@code hedge} starts a second attempt once the first has been running for the configured
+ *   percentile of the recent latencies and keeps whichever answers first.</li>
+ * </ul>
+ */
+@Component
+public class MovieInfoResilience {
+
+  private final TimeoutProperties timeoutProperties;
+  private final HedgingProperties hedgingProperties;
+  private final MongoCircuitBreaker mongoCircuitBreaker;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, Timer> attemptTimers = new ConcurrentHashMap<>();
+  private final AtomicInteger hedgesInFlight = new AtomicInteger();
+
+  public MovieInfoResilience(TimeoutProperties timeoutProperties, HedgingProperties hedgingProperties,
+      MongoCircuitBreaker mongoCircuitBreaker, MeterRegistry meterRegistry) {
+    this.timeoutProperties = timeoutProperties;
+    this.hedgingProperties = hedgingProperties;
+    this.mongoCircuitBreaker = mongoCircuitBreaker;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <T> Mono<T> bounded(String method, Mono<T> mono) {
+    return Mono.deferContextual(context -> {
+      var deadline = Deadline.within(context, timeoutProperties.timeoutOf(method));
+      var clientDeadline = deadline.isClientDeadline();
+      if (deadline.isExpired()) {
+        return Mono.error(expired(method, null, clientDeadline));
+      }
+      return mono.timeout(deadline.remaining())
+          .onErrorMap(MovieInfoResilience::isTimeout, ex -> expired(method, ex, clientDeadline))
+          .contextWrite(deadline::putIn);
+    });
+  }
+
+  //the deadline bounds the whole stream, not the gap between two elements
+  public <T> Flux<T> bounded(String method, Flux<T> flux) {
+    return Flux.deferContextual(context -> {
+      var deadline = Deadline.within(context, timeoutProperties.timeoutOf(method));
+      var clientDeadline = deadline.isClientDeadline();
+      if (deadline.isExpired()) {
+        return Flux.error(expired(method, null, clientDeadline));
+      }
+      return flux.timeout(Mono.delay(deadline.remaining()), element -> Mono.delay(deadline.remaining()))
+          .onErrorMap(MovieInfoResilience::isTimeout, ex -> expired(method, ex, clientDeadline))
+          .contextWrite(deadline::putIn);
+    });
+  }
+
+  public <T> Mono<T> guard(String method, Mono<T> mono) {
+    return Mono.defer(() -> {
+      mongoCircuitBreaker.acquire();
+      return bounded(method, mono)
+          .doOnSuccess(value -> mongoCircuitBreaker.onSuccess())
+          .doOnError(mongoCircuitBreaker::onError)
+          .doOnCancel(mongoCircuitBreaker::onCancel);
+    });
+  }
+
+  public <T> Flux<T> guard(String method, Flux<T> flux) {
+    return Flux.defer(() -> {
+      mongoCircuitBreaker.acquire();
+      return bounded(method, flux)
+          .doOnComplete(mongoCircuitBreaker::onSuccess)
+          .doOnError(mongoCircuitBreaker::onError)
+          .doOnCancel(mongoCircuitBreaker::onCancel);
+    });
+  }
+
+  //each attempt is guarded on its own and the first answer wins, not found included (hence the Optional). An error of
+  //one attempt lets the other still answer, the error of the first attempt is kept when neither does
+  public <T> Mono<T> hedge(String method, Supplier<Mono<T>> attempt) {
+    if (!hedgingProperties.isEnabled()) {
+      return guard(method, Mono.defer(attempt));
+    }
+    return Mono.defer(() -> {
+      var firstError = new AtomicReference<Throwable>();
+      var first = timedAttempt(method, attempt)
+          .map(Optional::of)
+          .defaultIfEmpty(Optional.empty())
+          .doOnError(firstError::set);
+      var second = Mono.delay(hedgeDelay(method))
+          .then(Mono.defer(() -> {
+            if (hedgesInFlight.incrementAndGet() > hedgingProperties.getMaxInFlight()) {
+              hedgesInFlight.decrementAndGet();
+              return Mono.<Optional<T>>empty();
+            }
+            Counter.builder("moviesinfo.hedge").tag("method", method).register(meterRegistry).increment();
+            return timedAttempt(method, attempt)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(ex -> Mono.empty())
+                .doFinally(signalType -> hedgesInFlight.decrementAndGet());
+          }));
+      return Mono.firstWithValue(first, second)
+          .onErrorMap(NoSuchElementException.class, ex -> firstError.get() != null ? firstError.get() : ex)
+          .flatMap(Mono::justOrEmpty);
+    });
+  }
+
+  private <T> Mono<T> timedAttempt(String method, Supplier<Mono<T>> attempt) {
+    var timer = attemptTimer(method);
+    return guard(method, Mono.defer(() -> {
+      var startNanos = System.nanoTime();
+      return attempt.get()
+          .doOnSuccess(value -> timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS));
+    }));
+  }
+
+  private Duration hedgeDelay(String method) {
+    var timer = attemptTimer(method);
+    if (timer.count() < hedgingProperties.getMinimumSamples()) {
+      return hedgingProperties.getInitialDelay();
+    }
+    for (var percentile : timer.takeSnapshot().percentileValues()) {
+      if (percentile.percentile() == hedgingProperties.getPercentile()) {
+        var delay = Duration.ofNanos((long) percentile.value(TimeUnit.NANOSECONDS));
+        return delay.compareTo(hedgingProperties.getMinDelay()) > 0 ? delay : hedgingProperties.getMinDelay();
+      }
+    }
+    return hedgingProperties.getInitialDelay();
+  }
+
+  //client side percentile over a sliding window, so that the delay follows the recent latencies
+  private Timer attemptTimer(String method) {
+    return attemptTimers.computeIfAbsent(method, key -> Timer.builder("moviesinfo.hedge.attempt")
+        .tag("method", key)
+        .publishPercentiles(hedgingProperties.getPercentile())
+        .distributionStatisticExpiry(Duration.ofMinutes(1))
+        .register(meterRegistry));
+  }
+
+  private static DeadlineExceededException expired(String method, Throwable cause, boolean clientDeadline) {
+    return new DeadlineExceededException(method + " did not complete before its deadline", cause, clientDeadline);
+  }
+
+  //the Reactor timeout or the maxTimeMS of the query
+  private static boolean isTimeout(Throwable ex) {
+    if (ex instanceof DeadlineExceededException) {
+      return false;
+    }
+    for (var cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof TimeoutException || cause instanceof MongoExecutionTimeoutException
+          || cause instanceof QueryTimeoutException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,40 @@
+package moviesinfoservice.routing;
+
+import moviesinfoservice.config.ReadRoutingProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Puts a {@link CausalToken} in the context of every request when causal consistency is enabled,
+ * and writes it back in the {@value CausalToken#READ_AFTER_HEADER} response header once it holds
+ * an operation time.
+ */
+@Component
+public class CausalConsistencyFilter implements WebFilter {
+
+  private final ReadRoutingProperties readRoutingProperties;
+
+  public CausalConsistencyFilter(ReadRoutingProperties readRoutingProperties) {
+    this.readRoutingProperties = readRoutingProperties;
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    if (!readRoutingProperties.isEnabled() || !readRoutingProperties.isCausalConsistency()) {
+      return chain.filter(exchange);
+    }
+    var token = new CausalToken(
+        CausalToken.decode(exchange.getRequest().getHeaders().getFirst(CausalToken.READ_AFTER_HEADER)));
+    exchange.getResponse().beforeCommit(() -> {
+      if (token.isSet()) {
+        exchange.getResponse().getHeaders()
+            .set(CausalToken.READ_AFTER_HEADER, CausalToken.encode(token.operationTime()));
+      }
+      return Mono.empty();
+    });
+    return chain.filter(exchange).contextWrite(context -> context.put(CausalToken.class, token));
+  }
+}
@@ -0,0 +1,67 @@
+package moviesinfoservice.routing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import org.bson.BsonTimestamp;
+import reactor.util.context.ContextView;
+
+/**
+ * Operation time of the last write seen by a client, carried in the Reactor context by the
+ * {@link CausalConsistencyFilter}. It comes in with the {@value #READ_AFTER_HEADER} request header
+ * and is advanced by the writes of the request, the response hands it back in the same header.
+ */
+public class CausalToken {
+
+  public static final String READ_AFTER_HEADER = "X-Read-After";
+  //tolerated lead of a token over the clock of this instance, the cluster time comes from the clocks of the mongods
+  private static final Duration MAX_CLOCK_SKEW = Duration.ofSeconds(5);
+
+  private final AtomicReference<BsonTimestamp> operationTime;
+
+  CausalToken(BsonTimestamp operationTime) {
+    this.operationTime = new AtomicReference<>(operationTime);
+  }
+
+  public static Optional<CausalToken> from(ContextView context) {
+    return context.getOrEmpty(CausalToken.class);
+  }
+
+  public boolean isSet() {
+    return operationTime.get() != null;
+  }
+
+  BsonTimestamp operationTime() {
+    return operationTime.get();
+  }
+
+  void advance(BsonTimestamp newOperationTime) {
+    if (newOperationTime != null) {
+      operationTime.accumulateAndGet(newOperationTime,
+          (current, candidate) -> current == null || candidate.compareTo(current) > 0 ? candidate : current);
+    }
+  }
+
+  static String encode(BsonTimestamp operationTime) {
+    return Long.toString(operationTime.getValue());
+  }
+
+  //an unreadable token is ignored, the read is then only bounded by the max staleness. A token ahead of the clock
+  //was not handed out by a write, it is clamped so that it cannot hold the secondaries reads until their timeout
+  static BsonTimestamp decode(String header) {
+    if (header == null || header.isBlank()) {
+      return null;
+    }
+    BsonTimestamp operationTime;
+    try {
+      operationTime = new BsonTimestamp(Long.parseLong(header.trim()));
+    } catch (NumberFormatException ex) {
+      return null;
+    }
+    var latest = Instant.now().plus(MAX_CLOCK_SKEW).getEpochSecond();
+    return Integer.toUnsignedLong(operationTime.getTime()) > latest
+        ? new BsonTimestamp((int) latest, 0)
+        : operationTime;
+  }
+}
@@ -0,0 +1,157 @@
+package moviesinfoservice.routing;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.reactivestreams.client.ClientSession;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.ReadRoutingProperties;
+import moviesinfoservice.config.TimeoutProperties;
+import moviesinfoservice.resilience.Deadline;
+import org.bson.BsonTimestamp;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Picks the template the repository fragments run their queries on. Reads marked with
+ * {@link #onReplica(Flux)} go to a template using the configured read preference and max
+ * staleness, every other read and all the writes stay on the primary. With causal consistency a
+ * routed read of a request carrying a {@link CausalToken} runs in a causally consistent session
+ * advanced to the token, so the secondary waits until it has replicated the client's last write.
+ * Every read gets the remaining time of the {@link Deadline} in the context as maxTimeMS, or the
+ * default timeout when there is none.
+ */
+@Component
+@Slf4j
+public class MovieInfoRouting {
+
+  private static final String REPLICA = MovieInfoRouting.class.getName() + ".replica";
+  private static final ClientSessionOptions CAUSALLY_CONSISTENT =
+      ClientSessionOptions.builder().causallyConsistent(true).build();
+
+  private final ReactiveMongoTemplate primaryTemplate;
+  private final ReactiveMongoTemplate replicaTemplate;
+  private final ReadPreference readPreference;
+  private final boolean causalConsistency;
+  private final TimeoutProperties timeoutProperties;
+
+  public MovieInfoRouting(ReactiveMongoTemplate reactiveMongoTemplate, ReadRoutingProperties readRoutingProperties,
+      TimeoutProperties timeoutProperties) {
+    this.primaryTemplate = reactiveMongoTemplate;
+    this.timeoutProperties = timeoutProperties;
+    this.readPreference = readRoutingProperties.isEnabled()
+        ? readPreference(readRoutingProperties)
+        : ReadPreference.primary();
+    this.replicaTemplate = readRoutingProperties.isEnabled()
+        ? replicaTemplate(reactiveMongoTemplate, readPreference)
+        : reactiveMongoTemplate;
+    this.causalConsistency = readRoutingProperties.isEnabled() && readRoutingProperties.isCausalConsistency();
+  }
+
+  //the reads of the given publisher may be served by a secondary
+  public static <T> Flux<T> onReplica(Flux<T> flux) {
+    return flux.contextWrite(context -> context.put(REPLICA, true));
+  }
+
+  public static <T> Mono<T> onReplica(Mono<T> mono) {
+    return mono.contextWrite(context -> context.put(REPLICA, true));
+  }
+
+  public <T> Flux<T> find(Query query, Class<T> type) {
+    return Flux.deferContextual(context -> {
+      query.maxTimeMsec(maxTimeMillis(context));
+      return read(context, operations -> operations.find(query, type));
+    });
+  }
+
+  public <T> Mono<T> findOne(Query query, Class<T> type) {
+    return Mono.deferContextual(context -> {
+      query.maxTimeMsec(maxTimeMillis(context));
+      return read(context, operations -> operations.findOne(query, type).flux()).next();
+    });
+  }
+
+  private <T> Flux<T> read(ContextView context, Function<ReactiveMongoOperations, Flux<T>> query) {
+    if (replicaTemplate == primaryTemplate || !context.hasKey(REPLICA)) {
+      return query.apply(primaryTemplate);
+    }
+    var operationTime = causalConsistency
+        ? CausalToken.from(context).map(CausalToken::operationTime).orElse(null)
+        : null;
+    if (operationTime == null) {
+      return query.apply(replicaTemplate);
+    }
+    return Flux.usingWhen(session(operationTime),
+        session -> query.apply(replicaSession(session)),
+        MovieInfoRouting::close);
+  }
+
+  //the server gives up on the query once the deadline of the call has passed, rather than running it for nobody
+  private long maxTimeMillis(ContextView context) {
+    return Deadline.from(context)
+        .map(deadline -> Math.max(1, deadline.remaining().toMillis()))
+        .orElse(timeoutProperties.getDefaultTimeout().toMillis());
+  }
+
+  //writes always go to the primary, in a session when the operation time has to be handed back to the client
+  public <T> Mono<T> write(Function<ReactiveMongoOperations, Mono<T>> command) {
+    return Mono.deferContextual(context -> {
+      var token = causalConsistency ? CausalToken.from(context).orElse(null) : null;
+      if (token == null) {
+        return command.apply(primaryTemplate);
+      }
+      return Mono.usingWhen(session(null),
+          session -> command.apply(primaryTemplate.withSession(session))
+              .doOnSuccess(unused -> token.advance(session.getOperationTime())),
+          MovieInfoRouting::close);
+    });
+  }
+
+  private ReactiveMongoOperations replicaSession(ClientSession session) {
+    var operations = replicaTemplate.withSession(session);
+    //set again on the session bound copy, which is a template of its own
+    if (operations instanceof ReactiveMongoTemplate sessionTemplate) {
+      sessionTemplate.setReadPreference(readPreference);
+    }
+    return operations;
+  }
+
+  private Mono<ClientSession> session(BsonTimestamp operationTime) {
+    return primaryTemplate.getMongoDatabaseFactory().getSession(CAUSALLY_CONSISTENT)
+        .doOnNext(session -> {
+          if (operationTime != null) {
+            session.advanceOperationTime(operationTime);
+          }
+        });
+  }
+
+  private static Mono<Void> close(ClientSession session) {
+    return Mono.fromRunnable(session::close);
+  }
+
+  private static ReadPreference readPreference(ReadRoutingProperties readRoutingProperties) {
+    //the primary mode takes no max staleness
+    if ("primary".equalsIgnoreCase(readRoutingProperties.getReadPreference())) {
+      return ReadPreference.primary();
+    }
+    return ReadPreference.valueOf(readRoutingProperties.getReadPreference(), List.of(),
+        readRoutingProperties.getMaxStaleness().toSeconds(), TimeUnit.SECONDS);
+  }
+
+  //same database factory and converter, so the routed reads share the connection pools and mappings
+  private static ReactiveMongoTemplate replicaTemplate(ReactiveMongoTemplate primaryTemplate,
+      ReadPreference readPreference) {
+    var replicaTemplate = new ReactiveMongoTemplate(primaryTemplate.getMongoDatabaseFactory(),
+        primaryTemplate.getConverter());
+    replicaTemplate.setReadPreference(readPreference);
+    log.info("Routing the read-only movieInfo lookups with read preference {}", readPreference);
+    return replicaTemplate;
+  }
+}
@@ -0,0 +1,137 @@
+package moviesinfoservice.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.BatchLookupProperties;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.metrics.MovieInfoMetrics;
+import moviesinfoservice.repository.MovieInfoRepository;
+import moviesinfoservice.resilience.Deadline;
+import moviesinfoservice.routing.MovieInfoRouting;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.ContextView;
+
+/**
+ * Micro-batches single id lookups: while a query is running, the ids requested until it completes,
+ * the window ends or the batch is full are resolved by one findAllById ($in) query. A lookup with no
+ * query running goes out at once rather than waiting for the window. Lookups of the same id in a
+ * batch share its result. The query runs in the Reactor context of the lookup with the latest
+ * deadline (maxTimeMS, tracing). The lookups are read-only and may be served by a secondary, see
+ * MovieInfoRouting.
+ */
+@Component
+@Slf4j
+public class MovieInfoBatchLoader {
+
+  private final Object lock = new Object();
+  private MovieInfoRepository movieInfoRepository;
+  private MovieInfoMetrics movieInfoMetrics;
+  private BatchLookupProperties batchLookupProperties;
+  private Map<String, Sinks.One<MovieInfo>> pending = new HashMap<>();
+  private ContextView pendingContext;
+  private Disposable scheduledFlush;
+  private int inFlight;
+
+  public MovieInfoBatchLoader(MovieInfoRepository movieInfoRepository, MovieInfoMetrics movieInfoMetrics,
+      BatchLookupProperties batchLookupProperties) {
+    this.movieInfoRepository = movieInfoRepository;
+    this.movieInfoMetrics = movieInfoMetrics;
+    this.batchLookupProperties = batchLookupProperties;
+  }
+
+  public Mono<MovieInfo> load(String id) {
+    if (!batchLookupProperties.isCoalescingEnabled()) {
+      return MovieInfoRouting.onReplica(movieInfoRepository.findById(id));
+    }
+    return Mono.deferContextual(context -> {
+      Sinks.One<MovieInfo> sink;
+      Batch ready = null;
+      synchronized (lock) {
+        sink = pending.computeIfAbsent(id, key -> Sinks.one());
+        if (pendingContext == null || outlasts(context, pendingContext)) {
+          pendingContext = context;
+        }
+        if (inFlight == 0 || pending.size() >= batchLookupProperties.getMaxBatchSize()) {
+          ready = takePending();
+        } else if (scheduledFlush == null) {
+          scheduledFlush = Schedulers.parallel().schedule(this::flush,
+              batchLookupProperties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+        }
+      }
+      if (ready != null) {
+        query(ready);
+      }
+      return sink.asMono();
+    });
+  }
+
+  private void flush() {
+    Batch batch = null;
+    synchronized (lock) {
+      if (!pending.isEmpty()) {
+        batch = takePending();
+      }
+    }
+    if (batch != null) {
+      query(batch);
+    }
+  }
+
+  //called holding the lock with lookups pending, the batch is in flight until its query terminates
+  private Batch takePending() {
+    var batch = new Batch(pending, pendingContext);
+    pending = new HashMap<>();
+    pendingContext = null;
+    if (scheduledFlush != null) {
+      scheduledFlush.dispose();
+      scheduledFlush = null;
+    }
+    inFlight++;
+    return batch;
+  }
+
+  //a lookup without deadline is bounded by the default timeout only, so it outlasts any other
+  private static boolean outlasts(ContextView context, ContextView other) {
+    var remaining = Deadline.from(context).map(Deadline::remaining);
+    var otherRemaining = Deadline.from(other).map(Deadline::remaining);
+    return remaining.isEmpty() || otherRemaining.isPresent() && remaining.get().compareTo(otherRemaining.get()) > 0;
+  }
+
+  //the lookups made while the query ran go out as soon as it terminates
+  private void terminated() {
+    synchronized (lock) {
+      inFlight--;
+    }
+    flush();
+  }
+
+  private void query(Batch batch) {
+    var sinks = batch.sinks();
+    movieInfoMetrics.timed("findAllById", MovieInfoRouting.onReplica(movieInfoRepository.findAllById(sinks.keySet())))
+        .contextWrite(context -> context.putAll(batch.context()))
+        .doFinally(signalType -> terminated())
+        .subscribe(
+            movieInfo -> {
+              var sink = sinks.remove(movieInfo.getMovieInfoId());
+              if (sink != null) {
+                sink.tryEmitValue(movieInfo);
+              }
+            },
+            ex -> {
+              log.warn("Batched lookup of {} movieInfos failed : {}", sinks.size(), ex.getMessage());
+              sinks.values().forEach(sink -> sink.tryEmitError(ex));
+            },
+            //whatever is left was not found
+            () -> sinks.values().forEach(Sinks.One::tryEmitEmpty));
+  }
+
+  private record Batch(Map<String, Sinks.One<MovieInfo>> sinks, ContextView context) {
+
+  }
+}
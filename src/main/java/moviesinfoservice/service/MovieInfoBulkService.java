@@ -0,0 +1,152 @@
+package moviesinfoservice.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.cache.MovieInfoCache;
+import moviesinfoservice.cache.MovieInfoYearCache;
+import moviesinfoservice.config.BulkIngestProperties;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoBulkResult;
+import moviesinfoservice.domain.MovieInfoDeleteFilter;
+import moviesinfoservice.domain.MovieInfoDeleteResult;
+import moviesinfoservice.exception.InvalidPageRequestException;
+import moviesinfoservice.metrics.MovieInfoMetrics;
+import moviesinfoservice.repository.MovieInfoRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+@Service
+@Slf4j
+public class MovieInfoBulkService {
+
+  private MovieInfoRepository movieInfoRepository;
+  private Validator validator;
+  private BulkIngestProperties bulkIngestProperties;
+  private MovieInfoMetrics movieInfoMetrics;
+  private MovieInfoChangeFeed movieInfoChangeFeed;
+  private MovieInfoStatisticsService movieInfoStatisticsService;
+  private MovieInfoCache movieInfoCache;
+  private MovieInfoYearCache movieInfoYearCache;
+
+  public MovieInfoBulkService(MovieInfoRepository movieInfoRepository, Validator validator,
+      BulkIngestProperties bulkIngestProperties, MovieInfoMetrics movieInfoMetrics,
+      MovieInfoChangeFeed movieInfoChangeFeed, MovieInfoStatisticsService movieInfoStatisticsService,
+      MovieInfoCache movieInfoCache, MovieInfoYearCache movieInfoYearCache) {
+    this.movieInfoRepository = movieInfoRepository;
+    this.validator = validator;
+    this.bulkIngestProperties = bulkIngestProperties;
+    this.movieInfoMetrics = movieInfoMetrics;
+    this.movieInfoChangeFeed = movieInfoChangeFeed;
+    this.movieInfoStatisticsService = movieInfoStatisticsService;
+    this.movieInfoCache = movieInfoCache;
+    this.movieInfoYearCache = movieInfoYearCache;
+  }
+
+  public Flux<MovieInfoBulkResult> addMovieInfos(Flux<MovieInfo> movieInfos) {
+    //flatMapSequential() keeps the results in the request order while bounding the batches in flight
+    return movieInfos
+        .index()
+        .buffer(bulkIngestProperties.getBatchSize())
+        .flatMapSequential(this::insertBatch, bulkIngestProperties.getConcurrency());
+  }
+
+  //tombstones the movieInfos of the year and/or among the ids a batch at a time, emits how many were
+  public Mono<MovieInfoDeleteResult> deleteMovieInfos(MovieInfoDeleteFilter filter) {
+    if (filter.ids() != null && filter.ids().size() > bulkIngestProperties.getMaxDeleteIds()) {
+      return Mono.error(new InvalidPageRequestException("ids must not contain more than "
+          + bulkIngestProperties.getMaxDeleteIds() + " values"));
+    }
+    //the precision stored by mongo, softDeleteAll() finds the movieInfos it tombstoned by their deletedAt
+    var deletedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    var deleted = movieInfoRepository.findMatching(filter.year(), filter.ids())
+        .buffer(bulkIngestProperties.getBatchSize())
+        .concatMap(batch -> {
+          var ids = batch.stream().map(MovieInfo::getMovieInfoId).toList();
+          //the movieInfos deleted or updated since they were read are left to the write that got them first
+          return movieInfoRepository.softDeleteAll(ids, deletedAt)
+              .map(tombstonedIds -> {
+                var tombstoned = new HashSet<>(tombstonedIds);
+                return batch.stream().filter(movieInfo -> tombstoned.contains(movieInfo.getMovieInfoId())).toList();
+              })
+              .flatMap(tombstoned -> movieInfoStatisticsService.recordDeletes(tombstoned).thenReturn(tombstoned))
+              .map(tombstoned -> {
+                tombstoned.forEach(movieInfo -> {
+                  movieInfoCache.invalidate(movieInfo.getMovieInfoId());
+                  movieInfoYearCache.apply(movieInfo, null);
+                  movieInfoChangeFeed.publishDelete(movieInfo.getMovieInfoId());
+                });
+                return (long) tombstoned.size();
+              });
+        })
+        .reduce(0L, Long::sum)
+        .map(MovieInfoDeleteResult::new);
+    return movieInfoMetrics.timed("deleteAll", deleted);
+  }
+
+  private Flux<MovieInfoBulkResult> insertBatch(List<Tuple2<Long, MovieInfo>> batch) {
+    var results = new ArrayList<MovieInfoBulkResult>(batch.size());
+    var valid = new ArrayList<Tuple2<Long, MovieInfo>>(batch.size());
+    for (var item : batch) {
+      var violations = validator.validate(item.getT2());
+      if (violations.isEmpty()) {
+        valid.add(item);
+      } else {
+        results.add(MovieInfoBulkResult.failed(item.getT1(), item.getT2().getMovieInfoId(),
+            violationMessage(violations)));
+      }
+    }
+    if (valid.isEmpty()) {
+      return Flux.fromIterable(results);
+    }
+    var movieInfos = valid.stream().map(Tuple2::getT2).toList();
+    //unordered, so a refused movieInfo (duplicate id...) neither stops the batch nor leaves its status unknown
+    return movieInfoMetrics.timed("insertAll", movieInfoRepository.insertUnordered(movieInfos))
+        .onErrorResume(ex -> {
+          log.warn("Batch insert of {} movieInfos failed : {}", valid.size(), ex.getMessage());
+          var errors = new HashMap<Integer, String>();
+          for (int i = 0; i < valid.size(); i++) {
+            errors.put(i, ex.getMessage());
+          }
+          return Mono.just(errors);
+        })
+        .flatMapMany(errors -> {
+          var inserted = new ArrayList<MovieInfo>(valid.size());
+          for (int i = 0; i < valid.size(); i++) {
+            var item = valid.get(i);
+            if (errors.containsKey(i)) {
+              results.add(MovieInfoBulkResult.failed(item.getT1(), item.getT2().getMovieInfoId(), errors.get(i)));
+            } else {
+              inserted(item.getT2());
+              inserted.add(item.getT2());
+              results.add(MovieInfoBulkResult.created(item.getT1(), item.getT2().getMovieInfoId()));
+            }
+          }
+          results.sort(Comparator.comparingLong(MovieInfoBulkResult::index));
+          return movieInfoStatisticsService.recordInserts(inserted).thenMany(Flux.fromIterable(results));
+        });
+  }
+
+  private void inserted(MovieInfo movieInfo) {
+    movieInfoYearCache.apply(null, movieInfo);
+    movieInfoChangeFeed.publishInsert(movieInfo);
+  }
+
+  private String violationMessage(Set<ConstraintViolation<MovieInfo>> violations) {
+    return violations.stream()
+        .map(ConstraintViolation::getMessage)
+        .sorted()
+        .collect(Collectors.joining(","));
+  }
+}
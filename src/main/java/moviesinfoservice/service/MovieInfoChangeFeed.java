@@ -0,0 +1,242 @@
+package moviesinfoservice.service;
+
+import com.mongodb.MongoCommandException;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.ChangeFeedProperties;
+import moviesinfoservice.config.ChangeFeedProperties.Source;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoEvent;
+import moviesinfoservice.domain.MovieInfoEvent.Type;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+/**
+ * Live feed of movieInfo inserts, updates and deletes. A single change stream cursor (or the local
+ * events published by the services when change streams are not available) feeds a hub shared by
+ * all the subscribers, each one with its own bounded buffer. The latest events are kept so that a
+ * reconnecting subscriber resumes from them rather than from a cursor of its own.
+ */
+@Service
+@Slf4j
+public class MovieInfoChangeFeed {
+
+  //error returned by a standalone server: "The $changeStream stage is only supported on replica sets"
+  private static final int CHANGE_STREAM_NOT_SUPPORTED = 40573;
+
+  private final Sinks.Many<MovieInfoEvent> hub = Sinks.many().multicast().directBestEffort();
+  private final AtomicLong localSequence = new AtomicLong();
+  //the latest events emitted to the hub, guarded by the hub lock like the emissions
+  private final Deque<MovieInfoEvent> history = new ArrayDeque<>();
+
+  private ReactiveMongoTemplate reactiveMongoTemplate;
+  private ChangeFeedProperties changeFeedProperties;
+  private volatile boolean changeStreamActive;
+  private volatile Disposable cursor;
+
+  public MovieInfoChangeFeed(ReactiveMongoTemplate reactiveMongoTemplate,
+      ChangeFeedProperties changeFeedProperties) {
+    this.reactiveMongoTemplate = reactiveMongoTemplate;
+    this.changeFeedProperties = changeFeedProperties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (changeFeedProperties.getSource() == Source.LOCAL) {
+      log.info("movieInfo change feed uses the local events");
+      return;
+    }
+    var startAt = new AtomicReference<BsonTimestamp>();
+    var lastResumeToken = new AtomicReference<String>();
+    //the local events keep flowing until a change stream could be opened, the cursor then starts at the
+    //operation time of that open so the changes made in between are not lost. Transient failures reopen
+    //the cursor after the last event seen, so no change is lost
+    cursor = Mono.defer(this::openChangeStream)
+        .doOnNext(response -> {
+          startAt.compareAndSet(null, response.get("operationTime", BsonTimestamp.class));
+          if (!changeStreamActive) {
+            changeStreamActive = true;
+            log.info("movieInfo change feed uses the Mongo change stream");
+          }
+        })
+        .flatMapMany(response -> changeStream(lastResumeToken.get(), startAt.get()))
+        .doOnNext(event -> lastResumeToken.set(event.resumeToken()))
+        .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+            .maxBackoff(Duration.ofSeconds(30))
+            .filter(ex -> !isNotSupported(ex)))
+        .subscribe(this::emit, this::onChangeStreamError);
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (cursor != null) {
+      cursor.dispose();
+    }
+  }
+
+  public Flux<MovieInfoEvent> events(String resumeToken) {
+    var events = resumeToken != null ? resume(resumeToken) : hub.asFlux();
+    return events.onBackpressureBuffer(changeFeedProperties.getSubscriberBufferSize(),
+        dropped -> log.debug("Slow subscriber, movieInfo event dropped : {}", dropped.resumeToken()),
+        BufferOverflowStrategy.DROP_OLDEST);
+  }
+
+  public void publishInsert(MovieInfo movieInfo) {
+    publishLocal(Type.INSERT, movieInfo.getMovieInfoId(), movieInfo);
+  }
+
+  public void publishUpdate(MovieInfo movieInfo) {
+    publishLocal(Type.UPDATE, movieInfo.getMovieInfoId(), movieInfo);
+  }
+
+  public void publishDelete(String movieInfoId) {
+    publishLocal(Type.DELETE, movieInfoId, null);
+  }
+
+  private void publishLocal(Type type, String movieInfoId, MovieInfo movieInfo) {
+    //with an active change stream the same change will come from Mongo
+    if (changeStreamActive || changeFeedProperties.getSource() == Source.CHANGE_STREAM) {
+      return;
+    }
+    emit(new MovieInfoEvent(type, movieInfoId, movieInfo,
+        String.valueOf(localSequence.incrementAndGet())));
+  }
+
+  private void emit(MovieInfoEvent event) {
+    //the hub only accepts serialized emissions
+    synchronized (hub) {
+      history.addLast(event);
+      if (history.size() > changeFeedProperties.getHistorySize()) {
+        history.removeFirst();
+      }
+      hub.tryEmitNext(event);
+    }
+  }
+
+  //the events after the token from the history, then the hub. A token older than the history needs a
+  //cursor of its own started at the token, a local one can only be followed by the live events
+  private Flux<MovieInfoEvent> resume(String resumeToken) {
+    return Flux.create(sink -> {
+      Disposable subscription;
+      //under the emission lock, so no event is lost or repeated between the history and the hub
+      synchronized (hub) {
+        var missed = eventsAfter(resumeToken);
+        var events = missed == null && changeStreamActive ? changeStream(resumeToken, null) : hub.asFlux();
+        if (missed != null) {
+          missed.forEach(sink::next);
+        }
+        subscription = events.subscribe(sink::next, sink::error, sink::complete);
+      }
+      sink.onDispose(subscription);
+    });
+  }
+
+  private List<MovieInfoEvent> eventsAfter(String resumeToken) {
+    List<MovieInfoEvent> missed = null;
+    for (var event : history) {
+      if (missed != null) {
+        missed.add(event);
+      } else if (event.resumeToken().equals(resumeToken)) {
+        missed = new ArrayList<>();
+      }
+    }
+    return missed;
+  }
+
+  //opens a change stream cursor without waiting for its first batch and closes it: the server refuses
+  //it with CHANGE_STREAM_NOT_SUPPORTED when it is standalone
+  private Mono<Document> openChangeStream() {
+    var collectionName = reactiveMongoTemplate.getCollectionName(MovieInfo.class);
+    return reactiveMongoTemplate.executeCommand(new Document("aggregate", collectionName)
+            .append("pipeline", List.of(new Document("$changeStream", new Document())))
+            .append("cursor", new Document("batchSize", 0)))
+        .flatMap(response -> reactiveMongoTemplate.executeCommand(new Document("killCursors", collectionName)
+                .append("cursors", List.of(response.get("cursor", Document.class).getLong("id"))))
+            //left open, the idle cursor is closed by the server after its timeout
+            .onErrorResume(ex -> Mono.empty())
+            .thenReturn(response));
+  }
+
+  private Flux<MovieInfoEvent> changeStream(String resumeToken, BsonTimestamp startAt) {
+    return reactiveMongoTemplate.changeStream(MovieInfo.class)
+        .withOptions(options -> {
+          options.returnFullDocumentOnUpdate();
+          if (resumeToken != null) {
+            options.resumeAfter(new BsonDocument("_data", new BsonString(resumeToken)));
+          } else if (startAt != null) {
+            options.resumeAt(startAt);
+          }
+        })
+        .watchCollection(MovieInfo.class)
+        .listen()
+        .<MovieInfoEvent>handle((event, sink) -> {
+          var movieInfoEvent = toEvent(event);
+          if (movieInfoEvent != null) {
+            sink.next(movieInfoEvent);
+          }
+        });
+  }
+
+  private MovieInfoEvent toEvent(ChangeStreamEvent<MovieInfo> event) {
+    if (event.getOperationType() == null || event.getRaw() == null) {
+      return null;
+    }
+    var type = switch (event.getOperationType()) {
+      case INSERT -> Type.INSERT;
+      case UPDATE, REPLACE -> Type.UPDATE;
+      case DELETE -> Type.DELETE;
+      default -> null;
+    };
+    if (type == null) {
+      return null;
+    }
+    var movieInfoId = idOf(event.getRaw().getDocumentKey().get("_id"));
+    var resumeToken = event.getResumeToken().asDocument().getString("_data").getValue();
+    //a delete is a tombstoning update, the later purge shows up as a second (idempotent) delete
+    if (type == Type.UPDATE && event.getBody() != null && event.getBody().getDeletedAt() != null) {
+      return new MovieInfoEvent(Type.DELETE, movieInfoId, null, resumeToken);
+    }
+    return new MovieInfoEvent(type, movieInfoId, event.getBody(), resumeToken);
+  }
+
+  private String idOf(BsonValue id) {
+    return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+  }
+
+  private void onChangeStreamError(Throwable ex) {
+    changeStreamActive = false;
+    if (changeFeedProperties.getSource() == Source.CHANGE_STREAM) {
+      log.error("movieInfo change stream stopped : {}", ex.getMessage(), ex);
+    } else {
+      log.warn("Change streams are not available, movieInfo change feed falls back to the local events : {}",
+          ex.getMessage());
+    }
+  }
+
+  private boolean isNotSupported(Throwable ex) {
+    return NestedExceptionUtils.getMostSpecificCause(ex) instanceof MongoCommandException commandException
+        && commandException.getErrorCode() == CHANGE_STREAM_NOT_SUPPORTED;
+  }
+}
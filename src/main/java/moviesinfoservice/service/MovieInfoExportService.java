@@ -0,0 +1,177 @@
+package moviesinfoservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import moviesinfoservice.config.ExportProperties;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.exception.InvalidPageRequestException;
+import moviesinfoservice.metrics.MovieInfoMetrics;
+import moviesinfoservice.repository.MovieInfoRepository;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Streams the whole catalog, or the part after a movieInfoId to resume an export, as NDJSON or CSV
+ * encoded straight into data buffers. Only one chunk of movieInfos and one cursor batch are held at
+ * a time: the buffers are requested by the response as the connection drains and the cursor only
+ * fetches its next batch on that demand.
+ */
+@Service
+public class MovieInfoExportService {
+
+  private static final byte[] CSV_HEADER =
+      "movieInfoId,name,year,cast,release_date,version\n".getBytes(StandardCharsets.UTF_8);
+
+  public enum Format {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+    private final MediaType mediaType;
+
+    Format(MediaType mediaType) {
+      this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+      return mediaType;
+    }
+  }
+
+  private MovieInfoRepository movieInfoRepository;
+  private ExportProperties exportProperties;
+  private MovieInfoMetrics movieInfoMetrics;
+  private ObjectWriter objectWriter;
+
+  public MovieInfoExportService(MovieInfoRepository movieInfoRepository, ExportProperties exportProperties,
+      MovieInfoMetrics movieInfoMetrics, ObjectMapper objectMapper) {
+    this.movieInfoRepository = movieInfoRepository;
+    this.exportProperties = exportProperties;
+    this.movieInfoMetrics = movieInfoMetrics;
+    //the data buffer stream stays open across the movieInfos of a chunk
+    this.objectWriter = objectMapper.writerFor(MovieInfo.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
+  public Flux<DataBuffer> export(Format format, String startAfter, Integer batchSize, boolean gzip,
+      DataBufferFactory bufferFactory) {
+    var movieInfos = movieInfoMetrics.timed("export",
+        movieInfoRepository.streamAfter(startAfter, resolveBatchSize(batchSize)));
+    var chunks = movieInfos
+        .buffer(exportProperties.getChunkSize())
+        .map(chunk -> encode(format, chunk, bufferFactory));
+    //a resumed CSV export is appended to the rows already received, so the header only starts a new one
+    if (format == Format.CSV && startAfter == null) {
+      chunks = Flux.concat(Mono.fromSupplier(() -> bufferFactory.wrap(CSV_HEADER)), chunks);
+    }
+    return gzip ? gzip(chunks, bufferFactory) : chunks;
+  }
+
+  private int resolveBatchSize(Integer batchSize) {
+    if (batchSize == null) {
+      return exportProperties.getBatchSize();
+    }
+    if (batchSize <= 0) {
+      throw new InvalidPageRequestException("batchSize must be a positive value");
+    }
+    return Math.min(batchSize, exportProperties.getMaxBatchSize());
+  }
+
+  private DataBuffer encode(Format format, List<MovieInfo> chunk, DataBufferFactory bufferFactory) {
+    var buffer = bufferFactory.allocateBuffer(chunk.size() * 256);
+    try (var out = buffer.asOutputStream()) {
+      for (var movieInfo : chunk) {
+        if (format == Format.NDJSON) {
+          objectWriter.writeValue(out, movieInfo);
+          out.write('\n');
+        } else {
+          out.write(csvRow(movieInfo).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      return buffer;
+    } catch (IOException ex) {
+      DataBufferUtils.release(buffer);
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static String csvRow(MovieInfo movieInfo) {
+    var row = new StringBuilder(128);
+    appendCsv(row, movieInfo.getMovieInfoId()).append(',');
+    appendCsv(row, movieInfo.getName()).append(',');
+    appendCsv(row, movieInfo.getYear()).append(',');
+    appendCsv(row, movieInfo.getCast() != null ? String.join("|", movieInfo.getCast()) : null).append(',');
+    appendCsv(row, movieInfo.getRelease_date()).append(',');
+    appendCsv(row, movieInfo.getVersion()).append('\n');
+    return row.toString();
+  }
+
+  private static StringBuilder appendCsv(StringBuilder row, Object value) {
+    if (value == null) {
+      return row;
+    }
+    var text = value.toString();
+    if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+      return row.append(text);
+    }
+    return row.append('"').append(text.replace("\"", "\"\"")).append('"');
+  }
+
+  //each chunk is compressed and sync flushed on its own, so the client can decompress as the export goes
+  private Flux<DataBuffer> gzip(Flux<DataBuffer> chunks, DataBufferFactory bufferFactory) {
+    return Flux.using(GzipChunks::new,
+        gzipChunks -> chunks.map(chunk -> bufferFactory.wrap(gzipChunks.compress(chunk)))
+            .concatWith(Mono.fromCallable(() -> bufferFactory.wrap(gzipChunks.finish()))),
+        GzipChunks::close);
+  }
+
+  private static final class GzipChunks {
+
+    private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(8192);
+    private final GZIPOutputStream gzip;
+
+    GzipChunks() throws IOException {
+      this.gzip = new GZIPOutputStream(compressed, 8192, true);
+    }
+
+    byte[] compress(DataBuffer chunk) {
+      try (var in = chunk.asInputStream(true)) {
+        in.transferTo(gzip);
+        gzip.flush();
+        return drain();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+
+    byte[] finish() throws IOException {
+      gzip.finish();
+      return drain();
+    }
+
+    private byte[] drain() {
+      var bytes = compressed.toByteArray();
+      compressed.reset();
+      return bytes;
+    }
+
+    //releases the native deflater whether the export completed or was cancelled
+    void close() {
+      try {
+        gzip.close();
+      } catch (IOException ignored) {
+        //nothing left to write to
+      }
+    }
+  }
+}
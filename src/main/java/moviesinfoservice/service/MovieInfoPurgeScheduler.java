@@ -0,0 +1,75 @@
+package moviesinfoservice.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.PurgeProperties;
+import moviesinfoservice.metrics.MovieInfoMetrics;
+import moviesinfoservice.repository.MovieInfoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Physically removes the tombstoned movieInfos in the background, one batch at a time with a pause
+ * between batches that keeps the deletes under moviesinfo.purge.max-deletes-per-second.
+ */
+@Service
+@Slf4j
+public class MovieInfoPurgeScheduler {
+
+  private MovieInfoRepository movieInfoRepository;
+  private PurgeProperties purgeProperties;
+  private MovieInfoMetrics movieInfoMetrics;
+  private volatile Disposable schedule;
+
+  public MovieInfoPurgeScheduler(MovieInfoRepository movieInfoRepository, PurgeProperties purgeProperties,
+      MovieInfoMetrics movieInfoMetrics) {
+    this.movieInfoRepository = movieInfoRepository;
+    this.purgeProperties = purgeProperties;
+    this.movieInfoMetrics = movieInfoMetrics;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!purgeProperties.isEnabled()) {
+      return;
+    }
+    //a purge still running when the next tick comes simply delays it
+    schedule = Flux.interval(purgeProperties.getInterval(), purgeProperties.getInterval())
+        .onBackpressureDrop()
+        .concatMap(tick -> purge()
+            .onErrorResume(ex -> {
+              log.error("movieInfo purge failed : {}", ex.getMessage(), ex);
+              return Mono.just(0L);
+            }), 1)
+        .subscribe(purged -> {
+          if (purged > 0) {
+            log.info("Purged {} tombstoned movieInfos", purged);
+          }
+        });
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (schedule != null) {
+      schedule.dispose();
+    }
+  }
+
+  public Mono<Long> purge() {
+    var deletedBefore = Instant.now().minus(purgeProperties.getRetention());
+    var batchSize = purgeProperties.getBatchSize();
+    var pause = Duration.ofMillis(1000L * batchSize / Math.max(1, purgeProperties.getMaxDeletesPerSecond()));
+    //a batch smaller than the limit means no tombstone old enough is left
+    var batches = Mono.defer(() -> movieInfoRepository.purgeTombstones(deletedBefore, batchSize))
+        .delayElement(pause)
+        .repeat()
+        .takeUntil(purged -> purged < batchSize);
+    return movieInfoMetrics.timed("purge", batches.reduce(0L, Long::sum));
+  }
+}
@@ -0,0 +1,106 @@
+package moviesinfoservice.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.StatisticsProperties;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoCount;
+import moviesinfoservice.domain.MovieInfoStatistic;
+import moviesinfoservice.domain.MovieInfoStatisticType;
+import moviesinfoservice.repository.MovieInfoStatisticsRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Slf4j
+public class MovieInfoStatisticsService {
+
+  private MovieInfoStatisticsRepository movieInfoStatisticsRepository;
+  private StatisticsProperties statisticsProperties;
+
+  public MovieInfoStatisticsService(MovieInfoStatisticsRepository movieInfoStatisticsRepository,
+      StatisticsProperties statisticsProperties) {
+    this.movieInfoStatisticsRepository = movieInfoStatisticsRepository;
+    this.statisticsProperties = statisticsProperties;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildWhenEmpty() {
+    if (!statisticsProperties.isMaterialized() || !statisticsProperties.isRebuildWhenEmpty()) {
+      return;
+    }
+    movieInfoStatisticsRepository.countMaterialized()
+        .filter(count -> count == 0)
+        .flatMap(count -> movieInfoStatisticsRepository.rebuild().thenReturn(true))
+        .subscribe(rebuilt -> log.info("movieInfo statistics rebuilt"),
+            ex -> log.error("movieInfo statistics rebuild failed : {}", ex.getMessage(), ex));
+  }
+
+  public Flux<MovieInfoCount> getCounts(MovieInfoStatisticType type, int limit) {
+    if (!statisticsProperties.isMaterialized()) {
+      return movieInfoStatisticsRepository.aggregate(type, limit);
+    }
+    var counts = movieInfoStatisticsRepository.findMaterialized(type, limit);
+    //the materialized counters come by count, the other types are small enough to be sorted here
+    return type == MovieInfoStatisticType.CAST ? counts : counts.sort(type.order());
+  }
+
+  public Mono<Void> recordChange(MovieInfo before, MovieInfo after) {
+    if (!statisticsProperties.isMaterialized()) {
+      return Mono.empty();
+    }
+    var deltas = new HashMap<MovieInfoStatistic, Long>();
+    addDeltas(deltas, before, -1);
+    addDeltas(deltas, after, 1);
+    return apply(deltas);
+  }
+
+  public Mono<Void> recordInserts(Collection<MovieInfo> inserted) {
+    return recordAll(inserted, 1);
+  }
+
+  public Mono<Void> recordDeletes(Collection<MovieInfo> deleted) {
+    return recordAll(deleted, -1);
+  }
+
+  private Mono<Void> recordAll(Collection<MovieInfo> movieInfos, long delta) {
+    if (!statisticsProperties.isMaterialized() || movieInfos.isEmpty()) {
+      return Mono.empty();
+    }
+    var deltas = new HashMap<MovieInfoStatistic, Long>();
+    movieInfos.forEach(movieInfo -> addDeltas(deltas, movieInfo, delta));
+    return apply(deltas);
+  }
+
+  public int defaultTopCast() {
+    return statisticsProperties.getDefaultTopCast();
+  }
+
+  private Mono<Void> apply(Map<MovieInfoStatistic, Long> deltas) {
+    deltas.values().removeIf(delta -> delta == 0);
+    //the write itself succeeded, a failed counter update is logged rather than failing the request
+    return movieInfoStatisticsRepository.increment(deltas)
+        .onErrorResume(ex -> {
+          log.error("movieInfo statistics update failed : {}", ex.getMessage(), ex);
+          return Mono.empty();
+        });
+  }
+
+  private void addDeltas(Map<MovieInfoStatistic, Long> deltas, MovieInfo movieInfo, long delta) {
+    if (movieInfo == null) {
+      return;
+    }
+    for (var type : MovieInfoStatisticType.values()) {
+      List<String> keys = type.keysOf(movieInfo);
+      for (var key : keys) {
+        deltas.merge(new MovieInfoStatistic(type.name() + ":" + key, type, key, 0), delta, Long::sum);
+      }
+    }
+  }
+}
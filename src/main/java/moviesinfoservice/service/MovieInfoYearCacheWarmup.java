@@ -0,0 +1,95 @@
+package moviesinfoservice.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.cache.MovieInfoYearCache;
+import moviesinfoservice.config.YearCacheProperties;
+import moviesinfoservice.repository.MovieInfoYearRequestRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Preloads the most requested years into MovieInfoYearCache at startup, and keeps the request
+ * counts it ranks them by up to date in the movieInfoYearRequests collection. The cached years
+ * then follow the change feed, which brings the writes of the other instances when it reads the
+ * Mongo change stream.
+ */
+@Service
+@Slf4j
+public class MovieInfoYearCacheWarmup {
+
+  private MoviesInfoService moviesInfoService;
+  private MovieInfoYearCache movieInfoYearCache;
+  private MovieInfoYearRequestRepository movieInfoYearRequestRepository;
+  private YearCacheProperties yearCacheProperties;
+  private MovieInfoChangeFeed movieInfoChangeFeed;
+  private volatile Disposable schedule;
+  private volatile Disposable changes;
+
+  public MovieInfoYearCacheWarmup(MoviesInfoService moviesInfoService, MovieInfoYearCache movieInfoYearCache,
+      MovieInfoYearRequestRepository movieInfoYearRequestRepository, YearCacheProperties yearCacheProperties,
+      MovieInfoChangeFeed movieInfoChangeFeed) {
+    this.moviesInfoService = moviesInfoService;
+    this.movieInfoYearCache = movieInfoYearCache;
+    this.movieInfoYearRequestRepository = movieInfoYearRequestRepository;
+    this.yearCacheProperties = yearCacheProperties;
+    this.movieInfoChangeFeed = movieInfoChangeFeed;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!movieInfoYearCache.isEnabled()) {
+      return;
+    }
+    //the local writes are already applied, applying them again is a no-op
+    changes = movieInfoChangeFeed.events(null)
+        .subscribe(event -> movieInfoYearCache.applyChange(event.movieInfoId(), event.movieInfo()),
+            ex -> log.error("movieInfo year cache stopped following the change feed : {}", ex.getMessage(), ex));
+    warmup().subscribe(years -> log.info("Preloaded {} years into the movieInfo year cache", years),
+        ex -> log.error("movieInfo year cache warm-up failed : {}", ex.getMessage(), ex));
+    var interval = yearCacheProperties.getRequestFlushInterval();
+    schedule = Flux.interval(interval, interval)
+        .onBackpressureDrop()
+        .concatMap(tick -> flushRequestCounts()
+            .onErrorResume(ex -> {
+              log.error("movieInfo year request counts flush failed : {}", ex.getMessage(), ex);
+              return Mono.empty();
+            }), 1)
+        .subscribe();
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (schedule != null) {
+      schedule.dispose();
+    }
+    if (changes != null) {
+      changes.dispose();
+    }
+  }
+
+  //a year that fails to load is skipped, it is loaded by its first request instead
+  public Mono<Long> warmup() {
+    if (yearCacheProperties.getWarmupYears() <= 0) {
+      return Mono.just(0L);
+    }
+    return movieInfoYearRequestRepository.findMostRequested(yearCacheProperties.getWarmupYears())
+        .concatMap(year -> moviesInfoService.preloadYear(year)
+            .onErrorResume(ex -> {
+              log.warn("Year {} not preloaded : {}", year, ex.getMessage());
+              return Mono.empty();
+            }))
+        .count();
+  }
+
+  public Mono<Void> flushRequestCounts() {
+    return Mono.defer(() -> {
+      var counts = movieInfoYearCache.drainRequestCounts();
+      return counts.isEmpty() ? Mono.empty() : movieInfoYearRequestRepository.increment(counts);
+    });
+  }
+}
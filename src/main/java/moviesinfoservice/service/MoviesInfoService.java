@@ -1,49 +1,177 @@
 package moviesinfoservice.service;
 
 import java.lang.System.Logger;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import moviesinfoservice.cache.MovieInfoCache;
+import moviesinfoservice.cache.MovieInfoYearCache;
+import moviesinfoservice.cache.MovieInfoYearSnapshot;
 import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoLookup;
+import moviesinfoservice.domain.MovieInfoPatch;
+import moviesinfoservice.metrics.MovieInfoMetrics;
 import moviesinfoservice.repository.MovieInfoRepository;
+import moviesinfoservice.resilience.MovieInfoResilience;
+import moviesinfoservice.routing.CausalToken;
+import moviesinfoservice.routing.MovieInfoRouting;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
 
 @Service
 public class MoviesInfoService {
   private MovieInfoRepository movieInfoRepository;
+  private MovieInfoCache movieInfoCache;
+  private MovieInfoMetrics movieInfoMetrics;
+  private MovieInfoChangeFeed movieInfoChangeFeed;
+  private MovieInfoStatisticsService movieInfoStatisticsService;
+  private MovieInfoBatchLoader movieInfoBatchLoader;
+  private MovieInfoResilience movieInfoResilience;
+  private MovieInfoYearCache movieInfoYearCache;
 
-  public MoviesInfoService(MovieInfoRepository movieInfoRepository) {
+  public MoviesInfoService(MovieInfoRepository movieInfoRepository, MovieInfoCache movieInfoCache,
+      MovieInfoMetrics movieInfoMetrics, MovieInfoChangeFeed movieInfoChangeFeed,
+      MovieInfoStatisticsService movieInfoStatisticsService, MovieInfoBatchLoader movieInfoBatchLoader,
+      MovieInfoResilience movieInfoResilience, MovieInfoYearCache movieInfoYearCache) {
     this.movieInfoRepository = movieInfoRepository;
+    this.movieInfoCache = movieInfoCache;
+    this.movieInfoMetrics = movieInfoMetrics;
+    this.movieInfoChangeFeed = movieInfoChangeFeed;
+    this.movieInfoStatisticsService = movieInfoStatisticsService;
+    this.movieInfoBatchLoader = movieInfoBatchLoader;
+    this.movieInfoResilience = movieInfoResilience;
+    this.movieInfoYearCache = movieInfoYearCache;
   }
 
+  //a creation only, an id already taken by a live movieInfo is a conflict (409) rather than a replace
   public Mono<MovieInfo> addMovieInfo(MovieInfo movieInfo){
-    return movieInfoRepository.save(movieInfo);
+    return movieInfoMetrics.timed("add", movieInfoResilience.guard("add", movieInfoRepository.insert(movieInfo)))
+        .flatMap(savedMovieInfo -> movieInfoStatisticsService.recordChange(null, savedMovieInfo)
+            .thenReturn(savedMovieInfo))
+        .doOnNext(savedMovieInfo -> {
+          movieInfoCache.invalidate(savedMovieInfo.getMovieInfoId());
+          movieInfoYearCache.apply(null, savedMovieInfo);
+        })
+        .doOnNext(movieInfoChangeFeed::publishInsert);
   }
 
-  public Flux<MovieInfo> getAllMovieInfos() {
-    return movieInfoRepository.findAll();
+  public Flux<MovieInfo> getMovieInfosPage(Integer year, String after, int limit, Set<String> fields) {
+    var method = year != null ? "findByYear" : "findAll";
+    var page = MovieInfoRouting.onReplica(movieInfoRepository.findPage(year, after, limit, fields));
+    if (year == null || !fields.isEmpty()) {
+      return movieInfoMetrics.timed(method, movieInfoResilience.guard(method, page));
+    }
+    //a whole-document page of a year is cut from the year snapshot, projected pages still go to Mongo
+    return movieInfoMetrics.timed(method, Flux.deferContextual(context -> useYearCache(context)
+        ? movieInfoResilience.bounded(method, yearSnapshot(year))
+            .flatMapIterable(snapshot -> snapshot.page(after, limit))
+        : movieInfoResilience.guard(method, page)));
   }
 
   public Mono<MovieInfo> getMovieInfosById(String id) {
-    return movieInfoRepository.findById(id);
+    //concurrent cache misses are merged into one query by the batch loader, and hedged when enabled. A client holding
+    //a causal token reads its own session past the cache, which a concurrent lagging read may have filled with an
+    //older version. A cache hit does not need Mongo, only the loads go through the circuit breaker
+    return movieInfoMetrics.timed("findById", movieInfoResilience.bounded("findById", Mono.deferContextual(context ->
+        CausalToken.from(context).filter(CausalToken::isSet).isPresent()
+            ? movieInfoResilience.guard("findById", MovieInfoRouting.onReplica(movieInfoRepository.findById(id)))
+            : movieInfoCache.get(id, key -> movieInfoResilience.hedge("findById",
+                () -> movieInfoBatchLoader.load(key))))));
+  }
+
+  //one result per requested id, in the request order, not found ids included
+  public Flux<MovieInfoLookup> getMovieInfosByIds(List<String> ids) {
+    return movieInfoMetrics.timed("findByIds", movieInfoResilience.bounded("findByIds",
+            movieInfoCache.getAll(new LinkedHashSet<>(ids),
+                missingIds -> movieInfoResilience.guard("findAllById", movieInfoRepository.findAllById(missingIds)))))
+        .flatMapIterable(found -> ids.stream()
+            .map(id -> found.containsKey(id) ? MovieInfoLookup.found(found.get(id)) : MovieInfoLookup.notFound(id))
+            .toList());
   }
 
   public Mono<MovieInfo> updateMovieInfo(MovieInfo updateMovieInfo, String id) {
     //flatMap() operation is use because we transform a reactive type to another reactive type
-   return movieInfoRepository.findById(id)
+   return movieInfoMetrics.timed("update", movieInfoResilience.guard("update", movieInfoRepository.findById(id)
         .flatMap(movieInfo -> {
+          var previous = new MovieInfo(movieInfo.getMovieInfoId(), movieInfo.getName(), movieInfo.getYear(),
+              movieInfo.getCast(), movieInfo.getRelease_date(), movieInfo.getVersion(),
+              movieInfo.getLastModified(), null);
           movieInfo.setYear(updateMovieInfo.getYear());
           movieInfo.setName(updateMovieInfo.getName());
           movieInfo.setCast(updateMovieInfo.getCast());
           movieInfo.setRelease_date(updateMovieInfo.getRelease_date());
-          return movieInfoRepository.save(updateMovieInfo);
+          //a version sent by the client makes the save fail if the document changed since it was read
+          if (updateMovieInfo.getVersion() != null) {
+            movieInfo.setVersion(updateMovieInfo.getVersion());
+          }
+          return movieInfoRepository.save(movieInfo)
+              .flatMap(savedMovieInfo -> movieInfoStatisticsService.recordChange(previous, savedMovieInfo)
+                  .thenReturn(savedMovieInfo))
+              .doOnNext(savedMovieInfo -> movieInfoYearCache.apply(previous, savedMovieInfo));
+        })))
+        .doOnSuccess(savedMovieInfo -> movieInfoCache.invalidate(id))
+        .doOnNext(movieInfoChangeFeed::publishUpdate);
+  }
+
+  public Mono<MovieInfo> patchMovieInfo(MovieInfoPatch patch, String id) {
+    //the repository returns the document as it was before the patch, the statistics need both versions
+    var lastModified = Instant.now().truncatedTo(ChronoUnit.MILLIS);//the precision stored by mongo
+    return movieInfoMetrics.timed("patch", movieInfoResilience.guard("patch",
+            movieInfoRepository.patch(id, patch, lastModified)
+                .flatMap(previous -> {
+                  var patchedMovieInfo = patch.applyTo(previous, lastModified);
+                  movieInfoYearCache.apply(previous, patchedMovieInfo);
+                  return movieInfoStatisticsService.recordChange(previous, patchedMovieInfo)
+                      .thenReturn(patchedMovieInfo);
+                })))
+        .doOnSuccess(patchedMovieInfo -> movieInfoCache.invalidate(id))
+        .doOnNext(movieInfoChangeFeed::publishUpdate);
+  }
+
+  //a non null version makes the delete fail with OptimisticLockingFailureException if the document changed.
+  //the movieInfo is only tombstoned here, MovieInfoPurgeScheduler removes it later
+  public Mono<Void> deleteMovieInfo(String id, Long version) {
+    return movieInfoMetrics.timed("delete", movieInfoResilience.guard("delete",
+            movieInfoRepository.softDelete(id, version, Instant.now())
+                .doOnNext(deletedMovieInfo -> movieInfoYearCache.apply(deletedMovieInfo, null))
+                .flatMap(deletedMovieInfo -> movieInfoStatisticsService.recordChange(deletedMovieInfo, null))))
+        .doOnSuccess(unused -> {
+          movieInfoCache.invalidate(id);
+          movieInfoChangeFeed.publishDelete(id);
         });
   }
 
-  public Mono<Void> deleteMovieInfo(String id) {
-    return movieInfoRepository.deleteById(id);
+  //loads the year into the near-cache without counting it as a request, used by the startup warm-up
+  public Mono<MovieInfoYearSnapshot> preloadYear(Integer year) {
+    return movieInfoYearCache.preload(year, this::loadYear);
+  }
+
+  private Mono<MovieInfoYearSnapshot> yearSnapshot(Integer year) {
+    return movieInfoYearCache.get(year, this::loadYear);
+  }
+
+  //from the primary: a snapshot read on a lagging secondary would keep the older versions until the year is written
+  private Mono<MovieInfoYearSnapshot> loadYear(Integer year) {
+    return movieInfoResilience.guard("findByYear", movieInfoRepository.findByYear(year).collectList())
+        .map(movieInfos -> MovieInfoYearSnapshot.of(year, movieInfos));
+  }
+
+  //like the id cache, the snapshots are skipped by a client reading its own writes through a causal token
+  private boolean useYearCache(ContextView context) {
+    return movieInfoYearCache.isEnabled() && CausalToken.from(context).filter(CausalToken::isSet).isEmpty();
+  }
+
+  public Flux<MovieInfo> searchMovieInfos(String text, int limit) {
+    return movieInfoMetrics.timed("search", movieInfoResilience.guard("search",
+        movieInfoRepository.searchByText(text, limit)));
   }
 
-  public Flux<MovieInfo> getMovieInfosByYear(Integer year) {
-    return movieInfoRepository.findByYear(year);
+  public Flux<MovieInfo> autocompleteMovieInfos(String prefix, int limit) {
+    return movieInfoMetrics.timed("autocomplete", movieInfoResilience.guard("autocomplete",
+        movieInfoRepository.findByNamePrefix(prefix, limit)));
   }
 }
@@ -0,0 +1,45 @@
+package moviesinfoservice.tracing;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-request counters of a sampled request, carried in the Reactor context by the
+ * {@link RequestTracingFilter}. Unsampled requests have no trace and are not counted.
+ */
+public class RequestTrace {
+
+  private final long startNanos = System.nanoTime();
+  private final LongAdder elements = new LongAdder();
+  private final LongAdder bytes = new LongAdder();
+
+  public static <T> Flux<T> countElements(Flux<T> flux) {
+    return Flux.deferContextual(context -> context.<RequestTrace>getOrEmpty(RequestTrace.class)
+        .map(trace -> flux.doOnNext(element -> trace.elements.increment()))
+        .orElse(flux));
+  }
+
+  public static <T> Mono<T> countElement(Mono<T> mono) {
+    return Mono.deferContextual(context -> context.<RequestTrace>getOrEmpty(RequestTrace.class)
+        .map(trace -> mono.doOnNext(element -> trace.elements.increment()))
+        .orElse(mono));
+  }
+
+  void addBytes(long count) {
+    bytes.add(count);
+  }
+
+  long elements() {
+    return elements.sum();
+  }
+
+  long bytes() {
+    return bytes.sum();
+  }
+
+  long elapsedMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+  }
+}
@@ -0,0 +1,101 @@
+package moviesinfoservice.tracing;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import moviesinfoservice.config.TracingProperties;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Logs a one line summary (status, elements, bytes, latency) for a sample of the requests. When
+ * tracing is disabled or a request is not sampled the exchange is passed through untouched.
+ */
+@Component
+@Slf4j
+public class RequestTracingFilter implements WebFilter {
+
+  private final TracingProperties tracingProperties;
+  private final List<RouteSampleRate> routes;
+
+  public RequestTracingFilter(TracingProperties tracingProperties) {
+    this.tracingProperties = tracingProperties;
+    this.routes = tracingProperties.getRoutes().stream()
+        .map(route -> new RouteSampleRate(PathPatternParser.defaultInstance.parse(route.getPattern()),
+            route.getSampleRate()))
+        .toList();
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+    if (!tracingProperties.isEnabled() || !isSampled(exchange.getRequest())) {
+      return chain.filter(exchange);
+    }
+    var trace = new RequestTrace();
+    var response = new ByteCountingResponse(exchange.getResponse(), trace);
+    return chain.filter(exchange.mutate().response(response).build())
+        .contextWrite(context -> context.put(RequestTrace.class, trace))
+        .doFinally(signalType -> log.info("{} {} status={} elements={} bytes={} latencyMs={} signal={}",
+            exchange.getRequest().getMethod(),
+            exchange.getRequest().getPath().value(),
+            response.getStatusCode() != null ? response.getStatusCode().value() : null,
+            trace.elements(),
+            trace.bytes(),
+            trace.elapsedMillis(),
+            signalType));
+  }
+
+  private boolean isSampled(ServerHttpRequest request) {
+    var sampleRate = sampleRate(request);
+    return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  private double sampleRate(ServerHttpRequest request) {
+    var path = request.getPath().pathWithinApplication();
+    for (var route : routes) {
+      if (route.pattern().matches(path)) {
+        return route.sampleRate();
+      }
+    }
+    return tracingProperties.getDefaultSampleRate();
+  }
+
+  private record RouteSampleRate(PathPattern pattern, double sampleRate) {
+
+  }
+
+  private static class ByteCountingResponse extends ServerHttpResponseDecorator {
+
+    private final RequestTrace trace;
+
+    ByteCountingResponse(ServerHttpResponse delegate, RequestTrace trace) {
+      super(delegate);
+      this.trace = trace;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+      return super.writeWith(count(body));
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+      return super.writeAndFlushWith(Flux.from(body).map(this::count));
+    }
+
+    private Flux<? extends DataBuffer> count(Publisher<? extends DataBuffer> body) {
+      return Flux.from(body).doOnNext(buffer -> trace.addBytes(buffer.readableByteCount()));
+    }
+  }
+}
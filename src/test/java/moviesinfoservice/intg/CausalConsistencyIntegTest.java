@@ -0,0 +1,161 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import com.mongodb.reactivestreams.client.MongoClients;
+import de.flapdoodle.embed.mongo.config.MongodArguments;
+import de.flapdoodle.embed.mongo.config.Storage;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import de.flapdoodle.reverse.transitions.Start;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import moviesinfoservice.MoviesInfoServiceApplication;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoPatch;
+import moviesinfoservice.routing.CausalToken;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+//reads routed to the secondaries of a local replica set, a client sending back its X-Read-After token sees its writes
+@SpringBootTest(classes = MoviesInfoServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+public class CausalConsistencyIntegTest {
+
+  private static final String REPLICA_SET = "rs0";
+  private static final List<TransitionWalker.ReachedState<RunningMongodProcess>> members = new ArrayList<>();
+  private static final List<String> addresses = new ArrayList<>();
+  static String URL_MOVIE_INFOS = "/v1/moviesinfo";
+
+  @Autowired
+  WebTestClient webTestClient;
+
+  @BeforeAll
+  static void startReplicaSet() {
+    for (int i = 0; i < 3; i++) {
+      //replica set members need the journal, which the embedded defaults turn off
+      var member = Mongod.instance()
+          .withMongodArguments(Start.to(MongodArguments.class).initializedWith(MongodArguments.defaults()
+              .withUseNoJournal(false)
+              .withReplication(Storage.of(REPLICA_SET, 0))))
+          .start(Version.Main.V6_0);
+      members.add(member);
+      var address = member.current().getServerAddress();
+      addresses.add(address.getHost() + ":" + address.getPort());
+    }
+    var configMembers = new ArrayList<Document>();
+    for (int i = 0; i < addresses.size(); i++) {
+      configMembers.add(new Document("_id", i).append("host", addresses.get(i)).append("priority", i == 0 ? 2 : 1));
+    }
+    try (var client = MongoClients.create("mongodb://" + addresses.get(0) + "/?directConnection=true")) {
+      var admin = client.getDatabase("admin");
+      Mono.from(admin.runCommand(new Document("replSetInitiate",
+              new Document("_id", REPLICA_SET).append("members", configMembers))))
+          .block();
+      Mono.defer(() -> Mono.from(admin.runCommand(new Document("hello", 1))))
+          .filter(hello -> hello.getBoolean("isWritablePrimary", false))
+          .repeatWhenEmpty(attempts -> attempts.delayElements(Duration.ofMillis(200)))
+          .timeout(Duration.ofSeconds(30))
+          .block();
+    }
+  }
+
+  @AfterAll
+  static void stopReplicaSet() {
+    members.forEach(TransitionWalker.ReachedState::close);
+  }
+
+  @DynamicPropertySource
+  static void mongoProperties(DynamicPropertyRegistry registry) {
+    //the local database is not replicated
+    registry.add("spring.data.mongodb.uri",
+        () -> "mongodb://" + String.join(",", addresses) + "/moviesinfo?replicaSet=" + REPLICA_SET);
+    registry.add("moviesinfo.read-routing.enabled", () -> true);
+    registry.add("moviesinfo.read-routing.read-preference", () -> "secondary");
+    registry.add("moviesinfo.read-routing.causal-consistency", () -> true);
+    registry.add("moviesinfo.changes.source", () -> "local");
+    registry.add("moviesinfo.rate-limit.enabled", () -> false);
+  }
+
+  @Test
+  void readYourWrites() {
+    for (int i = 0; i < 20; i++) {
+      var patchedName = "Batman patched " + i;
+      var created = webTestClient
+          .post()
+          .uri(URL_MOVIE_INFOS)
+          .bodyValue(new MovieInfo(null, "Batman " + i, 2005, List.of("Christian"), LocalDate.parse("2005-06-15")))
+          .exchange()
+          .expectStatus()
+          .isCreated()
+          .returnResult(MovieInfo.class);
+      var token = created.getResponseHeaders().getFirst(CausalToken.READ_AFTER_HEADER);
+      assertNotNull(token);
+      var movieInfo = created.getResponseBody().blockFirst();
+
+      //the secondary serving the read waits until it has replicated the insert
+      webTestClient
+          .get()
+          .uri(URL_MOVIE_INFOS + "/{id}", movieInfo.getMovieInfoId())
+          .header(CausalToken.READ_AFTER_HEADER, token)
+          .exchange()
+          .expectStatus()
+          .isOk()
+          .expectBody(MovieInfo.class)
+          .consumeWith(result -> assertEquals(movieInfo.getName(), result.getResponseBody().getName()));
+
+      var patched = webTestClient
+          .patch()
+          .uri(URL_MOVIE_INFOS + "/{id}", movieInfo.getMovieInfoId())
+          .header(CausalToken.READ_AFTER_HEADER, token)
+          .bodyValue(new MovieInfoPatch(patchedName, null, null, null, null))
+          .exchange()
+          .expectStatus()
+          .is2xxSuccessful()
+          .returnResult(MovieInfo.class);
+      var patchToken = patched.getResponseHeaders().getFirst(CausalToken.READ_AFTER_HEADER);
+
+      webTestClient
+          .get()
+          .uri(URL_MOVIE_INFOS + "/{id}", movieInfo.getMovieInfoId())
+          .header(CausalToken.READ_AFTER_HEADER, patchToken)
+          .exchange()
+          .expectStatus()
+          .isOk()
+          .expectBody(MovieInfo.class)
+          .consumeWith(result -> assertEquals(patchedName, result.getResponseBody().getName()));
+
+      var deleted = webTestClient
+          .delete()
+          .uri(URL_MOVIE_INFOS + "/{id}", movieInfo.getMovieInfoId())
+          .header(CausalToken.READ_AFTER_HEADER, patchToken)
+          .exchange()
+          .expectStatus()
+          .isNoContent()
+          .returnResult(Void.class);
+
+      webTestClient
+          .get()
+          .uri(URL_MOVIE_INFOS + "/{id}", movieInfo.getMovieInfoId())
+          .header(CausalToken.READ_AFTER_HEADER, deleted.getResponseHeaders().getFirst(CausalToken.READ_AFTER_HEADER))
+          .exchange()
+          .expectStatus()
+          .isNotFound();
+    }
+  }
+}
@@ -1,4 +1,5 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.time.LocalDate;
@@ -6,11 +7,14 @@ import java.util.List;
 import moviesinfoservice.MoviesInfoServiceApplication;
 import moviesinfoservice.domain.MovieInfo;
 import moviesinfoservice.repository.MovieInfoRepository;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 //@DataMongoTest@ActiveProfiles("test")
@@ -19,6 +23,8 @@ public class MovieInfoRepositoryIntegTest {
 
   @Autowired
   MovieInfoRepository movieInfoRepository;
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
 
   @BeforeEach
   void setup(){
@@ -138,4 +144,28 @@ public class MovieInfoRepositoryIntegTest {
         .verifyComplete();
   }
 
+  @Test
+  void findByYear_usesIndex(){
+    assertIndexScan(new Document("year", 2005));
+  }
+
+  @Test
+  void findByName_usesIndex(){
+    assertIndexScan(new Document("name", "Batman"));
+  }
+
+  @Test
+  void findByCast_usesIndex(){
+    assertIndexScan(new Document("cast", "Chist"));
+  }
+
+  //a query regressing to a full collection scan fails the build
+  private void assertIndexScan(Document filter){
+    var plan = reactiveMongoTemplate.getCollection("movieInfo")
+        .flatMap(collection -> Mono.from(collection.find(filter).explain()))
+        .block();
+    assert plan != null;
+    assertFalse(plan.toJson().contains("COLLSCAN"), () -> "COLLSCAN for " + filter.toJson());
+  }
+
 }
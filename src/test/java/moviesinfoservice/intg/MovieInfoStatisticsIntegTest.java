@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import moviesinfoservice.MoviesInfoServiceApplication;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoCount;
+import moviesinfoservice.domain.MovieInfoEvent;
+import moviesinfoservice.domain.MovieInfoEvent.Type;
+import moviesinfoservice.domain.MovieInfoStatistic;
+import moviesinfoservice.service.MovieInfoChangeFeed;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+//the writes keep the materialized statistics and the change feed in line with what they did to the catalog
+@SpringBootTest(classes = MoviesInfoServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {"moviesinfo.statistics.materialized=true", "moviesinfo.statistics.rebuild-when-empty=false",
+        "moviesinfo.changes.source=local"})
+@ActiveProfiles("test")
+@AutoConfigureWebTestClient
+public class MovieInfoStatisticsIntegTest {
+
+  @Autowired
+  WebTestClient webTestClient;
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  @Autowired
+  MovieInfoChangeFeed movieInfoChangeFeed;
+  static String URL_MOVIE_INFOS = "/v1/moviesinfo";
+
+  @AfterEach
+  void tearDown() {
+    reactiveMongoTemplate.remove(new Query(), MovieInfo.class).block();
+    reactiveMongoTemplate.remove(new Query(), MovieInfoStatistic.class).block();
+  }
+
+  private List<MovieInfoCount> countByYear() {
+    return webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS + "/statistics/years")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfoCount.class)
+        .returnResult()
+        .getResponseBody();
+  }
+
+  @Test
+  void addMovieInfo_existingIdCountedOnce() {
+    var events = movieInfoChangeFeed.events(null).map(MovieInfoEvent::type).take(3)
+        .timeout(Duration.ofSeconds(10))
+        .collectList()
+        .toFuture();
+
+    webTestClient.post().uri(URL_MOVIE_INFOS)
+        .bodyValue(new MovieInfo("abc", "Batman", 2008, List.of("Christian"), LocalDate.parse("2008-06-15")))
+        .exchange()
+        .expectStatus()
+        .isCreated();
+    //posted again while live: refused, nothing counted nor published
+    webTestClient.post().uri(URL_MOVIE_INFOS)
+        .bodyValue(new MovieInfo("abc", "Batman Begins", 2005, List.of("Christian"), LocalDate.parse("2005-06-15")))
+        .exchange()
+        .expectStatus()
+        .isEqualTo(409);
+    assertEquals(List.of(new MovieInfoCount("2008", 1)), countByYear());
+
+    //posted again over its tombstone: created anew
+    webTestClient.delete().uri(URL_MOVIE_INFOS + "/{id}", "abc").exchange().expectStatus().isNoContent();
+    webTestClient.post().uri(URL_MOVIE_INFOS)
+        .bodyValue(new MovieInfo("abc", "Batman Begins", 2005, List.of("Christian"), LocalDate.parse("2005-06-15")))
+        .exchange()
+        .expectStatus()
+        .isCreated();
+    assertEquals(List.of(new MovieInfoCount("2005", 1)), countByYear());
+
+    assertEquals(List.of(Type.INSERT, Type.DELETE, Type.INSERT), events.join());
+  }
+}
@@ -1,11 +1,27 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 import moviesinfoservice.MoviesInfoServiceApplication;
+import moviesinfoservice.cache.MovieInfoYearCache;
 import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoBulkResult;
+import moviesinfoservice.domain.MovieInfoBulkResult.Status;
+import moviesinfoservice.domain.MovieInfoCount;
+import moviesinfoservice.domain.MovieInfoDeleteFilter;
+import moviesinfoservice.domain.MovieInfoDeleteResult;
+import moviesinfoservice.domain.MovieInfoLookup;
+import moviesinfoservice.domain.MovieInfoPatch;
 import moviesinfoservice.repository.MovieInfoRepository;
+import org.bson.Document;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +29,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -27,7 +47,11 @@ public class MoviesInfoControllerIntegTest {
   MovieInfoRepository movieInfoRepository;
   @Autowired
   WebTestClient webTestClient;
-  static String URL_MOVIE_INFOS = "/v1/movieinfos";
+  @Autowired
+  MovieInfoYearCache movieInfoYearCache;
+  @Autowired
+  ReactiveMongoTemplate reactiveMongoTemplate;
+  static String URL_MOVIE_INFOS = "/v1/moviesinfo";
 
   @BeforeEach
   void setup() {
@@ -45,6 +69,8 @@ public class MoviesInfoControllerIntegTest {
   @AfterEach
   void tearDown() {
     movieInfoRepository.deleteAll().block();
+    //the fixtures are written through the repository, past the writes that patch the year snapshots
+    movieInfoYearCache.invalidateAll();
   }
 
   @Test
@@ -70,6 +96,71 @@ public class MoviesInfoControllerIntegTest {
         });
   }
 
+  @Test
+  void addMovieInfos_bulk() {
+    //given
+    var movieInfos = List.of(
+        new MovieInfo(null, "Dark Knight Rises", 2012, List.of("Chist", "Tom"),
+            LocalDate.parse("2012-07-20")),
+        new MovieInfo(null, "", -2012, List.of("Chist"), LocalDate.parse("2012-07-20")),
+        new MovieInfo(null, "Batman Begins", 2005, List.of("Chist"), LocalDate.parse("2005-06-15"))
+    );
+
+    //when
+    webTestClient
+        .post()
+        .uri(URL_MOVIE_INFOS+"/bulk")
+        .bodyValue(movieInfos)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfoBulkResult.class)
+        .consumeWith(listEntityExchangeResult -> {
+          var results = listEntityExchangeResult.getResponseBody();
+          assert results != null;
+          assertEquals(3, results.size());
+          assertEquals(Status.CREATED, results.get(0).status());
+          assertEquals(Status.FAILED, results.get(1).status());
+          assertEquals("movieInfo.name must be present,movieInfo.year must be a positive value",
+              results.get(1).error());
+          assertNotNull(results.get(2).movieInfoId());
+        });
+  }
+
+  @Test
+  void addMovieInfos_bulkDuplicateId() {
+    //given
+    var movieInfos = List.of(
+        new MovieInfo(null, "Dark Knight Rises", 2012, List.of("Chist", "Tom"),
+            LocalDate.parse("2012-07-20")),
+        new MovieInfo("abc", "Dark Knight Rises", 2012, List.of("Chist", "Tom"),
+            LocalDate.parse("2012-07-20")),
+        new MovieInfo(null, "Batman Begins", 2005, List.of("Chist"), LocalDate.parse("2005-06-15"))
+    );
+
+    //when
+    webTestClient
+        .post()
+        .uri(URL_MOVIE_INFOS+"/bulk")
+        .bodyValue(movieInfos)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfoBulkResult.class)
+        .consumeWith(listEntityExchangeResult -> {
+          var results = listEntityExchangeResult.getResponseBody();
+          assert results != null;
+          assertEquals(3, results.size());
+          assertEquals(Status.CREATED, results.get(0).status());
+          assertEquals(Status.FAILED, results.get(1).status());
+          assertEquals("abc", results.get(1).movieInfoId());
+          assertEquals(Status.CREATED, results.get(2).status());
+        });
+
+    //then the movieInfos around the duplicate are written once
+    assertEquals(5, movieInfoRepository.count().block());
+  }
+
   @Test
   void getAllMovieInfos(){
     webTestClient
@@ -97,6 +188,263 @@ public class MoviesInfoControllerIntegTest {
         .hasSize(1);
   }
 
+  @Test
+  void getAllMovieInfoByYear_patchedByWrites(){
+    var uri = URL_MOVIE_INFOS+"?year={year}";
+    webTestClient.get().uri(uri, 2005).exchange()
+        .expectBodyList(MovieInfo.class).hasSize(1);
+    webTestClient.get().uri(uri, 2008).exchange()
+        .expectBodyList(MovieInfo.class).hasSize(1);
+
+    //the cached years see the insert and the move from 2008 to 2005 without being reloaded
+    webTestClient.post().uri(URL_MOVIE_INFOS)
+        .bodyValue(new MovieInfo(null, "Batman Begins", 2005, List.of("Christian"), LocalDate.parse("2005-06-15")))
+        .exchange()
+        .expectStatus()
+        .isCreated();
+    webTestClient.patch().uri(URL_MOVIE_INFOS+"/{id}", "abc")
+        .bodyValue(new MovieInfoPatch(null, 2005, null, null, null))
+        .exchange()
+        .expectStatus()
+        .isOk();
+
+    webTestClient.get().uri(uri, 2005).exchange()
+        .expectBodyList(MovieInfo.class)
+        .value(movieInfos -> {
+          assertEquals(3, movieInfos.size());
+          assertEquals(1, movieInfos.stream().filter(movieInfo -> "abc".equals(movieInfo.getMovieInfoId())).count());
+        });
+    webTestClient.get().uri(uri, 2008).exchange()
+        .expectBodyList(MovieInfo.class).hasSize(0);
+  }
+
+  @Test
+  void getAllMovieInfos_paginated(){
+    var firstPage = webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?limit={limit}",2)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectHeader()
+        .exists("X-Next-Cursor")
+        .expectBodyList(MovieInfo.class)
+        .hasSize(2)
+        .returnResult();
+
+    var nextCursor = firstPage.getResponseHeaders().getFirst("X-Next-Cursor");
+
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?limit={limit}&after={after}",2,nextCursor)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfo.class)
+        .hasSize(1)
+        .consumeWith(listEntityExchangeResult ->
+            assertNull(listEntityExchangeResult.getResponseHeaders().getFirst("X-Next-Cursor")));
+  }
+
+  @Test
+  void getAllMovieInfos_paginatedAcrossIdTypes(){
+    //"abc" is stored as a string and sorts before the generated ObjectIds, the next pages must still reach them
+    var firstPage = webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?limit={limit}",1)
+        .exchange()
+        .expectBodyList(MovieInfo.class)
+        .value(movieInfos -> assertEquals("abc", movieInfos.get(0).getMovieInfoId()))
+        .returnResult();
+
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?limit={limit}&after={after}",5,
+            firstPage.getResponseHeaders().getFirst("X-Next-Cursor"))
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfo.class)
+        .hasSize(2);
+  }
+
+  @Test
+  void getAllMovieInfos_defaultLimit(){
+    var movieInfos = IntStream.range(0, 100)
+        .mapToObj(i -> new MovieInfo(null, "Batman " + i, 2005, List.of("Chist"), LocalDate.parse("2005-06-15")))
+        .toList();
+    movieInfoRepository.saveAll(movieInfos).blockLast();
+
+    //without a limit the listing stops at moviesinfo.pagination.default-limit rather than returning all 103
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectHeader()
+        .exists("X-Next-Cursor")
+        .expectBodyList(MovieInfo.class)
+        .hasSize(100);
+  }
+
+  @Test
+  void getAllMovieInfos_withFields(){
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?fields={fields}","name,year")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBody()
+        .jsonPath("$.length()").isEqualTo(3)
+        .jsonPath("$[0].movieInfoId").exists()
+        .jsonPath("$[0].name").exists()
+        .jsonPath("$[0].cast").doesNotExist()
+        .jsonPath("$[0].release_date").doesNotExist();
+  }
+
+  @Test
+  void getAllMovieInfos_withFieldsNotModifiedUntilWritten(){
+    var etag = webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?fields={fields}","name")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .returnResult(MovieInfo.class)
+        .getResponseHeaders()
+        .getETag();
+    assertNotNull(etag);
+
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?fields={fields}","name")
+        .ifNoneMatch(etag)
+        .exchange()
+        .expectStatus()
+        .isNotModified();
+
+    //a write to a field left out of the projection still bumps the version behind the page ETag
+    webTestClient
+        .put()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .bodyValue(new MovieInfo(null, "Batman1", 2009, List.of("Chist1"), LocalDate.parse("2008-06-15")))
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful();
+
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?fields={fields}","name")
+        .ifNoneMatch(etag)
+        .exchange()
+        .expectStatus()
+        .isOk();
+  }
+
+  @Test
+  void getAllMovieInfos_withUnknownField(){
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?fields={fields}","name,password")
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
+  @Test
+  void searchMovieInfos_byCast(){
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/search?q={q}","Michael1")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfo.class)
+        .hasSize(1)
+        .consumeWith(listEntityExchangeResult ->
+            assertEquals("Batman1", listEntityExchangeResult.getResponseBody().get(0).getName()));
+  }
+
+  @Test
+  void autocompleteMovieInfos(){
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/autocomplete?prefix={prefix}&limit={limit}","Batman",2)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfo.class)
+        .hasSize(2)
+        .consumeWith(listEntityExchangeResult ->
+            assertEquals("Batman", listEntityExchangeResult.getResponseBody().get(0).getName()));
+  }
+
+  @Test
+  void countMovieInfosByDecade(){
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/statistics/decades")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfoCount.class)
+        .isEqualTo(List.of(new MovieInfoCount("2000", 2), new MovieInfoCount("20010", 1)));
+  }
+
+  @Test
+  void exportMovieInfos_csv(){
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/export?format=csv")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectHeader()
+        .contentTypeCompatibleWith("text/csv")
+        .expectBody(String.class)
+        .consumeWith(result -> {
+          var lines = result.getResponseBody().split("\n");
+          assertEquals(4, lines.length);
+          assertEquals("movieInfoId,name,year,cast,release_date,version", lines[0]);
+        });
+  }
+
+  @Test
+  void exportMovieInfos_gzip(){
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/export?format=ndjson&gzip=true&batchSize=1")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectHeader()
+        .valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+        .expectBody(byte[].class)
+        .consumeWith(result -> {
+          try (var in = new GZIPInputStream(new ByteArrayInputStream(result.getResponseBody()))) {
+            var lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n");
+            assertEquals(3, lines.length);
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+  }
+
+  @Test
+  void exportMovieInfos_startAfterStringId(){
+    //the export resumed after the string id "abc" still reaches the ObjectId ids sorted after it
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/export?format=ndjson&startAfter={startAfter}","abc")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBody(String.class)
+        .consumeWith(result -> assertEquals(2, result.getResponseBody().split("\n").length));
+  }
+
   @Test
   void getMovieInfosById(){
     var movieInfoId ="abc";
@@ -128,6 +476,106 @@ public class MoviesInfoControllerIntegTest {
         .jsonPath("$.name").isEqualTo("Batman1");
   }
 
+  @Test
+  void getMovieInfosById_smile(){
+    var smile = MediaType.parseMediaType("application/x-jackson-smile");
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .accept(smile)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectHeader()
+        .contentTypeCompatibleWith(smile)
+        .expectBody(MovieInfo.class)
+        .consumeWith(movieInfoEntityExchangeResult ->
+            assertEquals("Batman1",movieInfoEntityExchangeResult.getResponseBody().getName()));
+  }
+
+  @Test
+  void getMovieInfosByIds(){
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/batch?ids={ids}","missing,abc")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfoLookup.class)
+        .hasSize(2)
+        .consumeWith(listEntityExchangeResult -> {
+          var lookups = listEntityExchangeResult.getResponseBody();
+          assertEquals(MovieInfoLookup.notFound("missing"), lookups.get(0));
+          assertEquals(MovieInfoLookup.Status.FOUND, lookups.get(1).status());
+          assertEquals("Batman1", lookups.get(1).movieInfo().getName());
+        });
+  }
+
+  @Test
+  void getMovieInfosById_notModified(){
+    var etag = webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectHeader()
+        .exists(HttpHeaders.LAST_MODIFIED)
+        .returnResult(MovieInfo.class)
+        .getResponseHeaders()
+        .getETag();
+    assertNotNull(etag);
+
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .ifNoneMatch(etag)
+        .exchange()
+        .expectStatus()
+        .isNotModified()
+        .expectBody()
+        .isEmpty();
+  }
+
+  @Test
+  void updateMovieInfo_ifMatchCurrent(){
+    var etag = webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .exchange()
+        .returnResult(MovieInfo.class)
+        .getResponseHeaders()
+        .getETag();
+    assert etag != null && etag.startsWith("W/");
+
+    webTestClient
+        .put()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .ifMatch(etag)
+        .bodyValue(new MovieInfo(null, "Batman updated", 2008, List.of("Chist1"), LocalDate.parse("2008-06-15")))
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful();
+  }
+
+  @Test
+  void deleteMovieInfo_ifMatchStale() {
+    webTestClient
+        .delete()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .ifMatch("\"42\"")
+        .exchange()
+        .expectStatus()
+        .isEqualTo(412);
+
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful();
+  }
+
   @Test
   void updateMovieInfo() {
     //given
@@ -152,6 +600,96 @@ public class MoviesInfoControllerIntegTest {
         });
   }
 
+  @Test
+  void updateMovieInfo_writtenWithoutVersion() {
+    //given a document written before versioning
+    reactiveMongoTemplate.insert(new Document("_id", "legacy").append("name", "Batman legacy").append("year", 2005),
+        reactiveMongoTemplate.getCollectionName(MovieInfo.class)).block();
+    var movieInfo = new MovieInfo(null, "Batman updated", 2005, List.of("Chist", "Michael"),
+        LocalDate.parse("2005-06-15"));
+
+    //when
+    webTestClient
+        .put()
+        .uri(URL_MOVIE_INFOS+"/{id}","legacy")
+        .bodyValue(movieInfo)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBody(MovieInfo.class)
+        .consumeWith(movieInfoEntityExchangeResult -> {
+          var updateMovieInfo = movieInfoEntityExchangeResult.getResponseBody();
+          assert updateMovieInfo != null;
+          assertEquals("legacy", updateMovieInfo.getMovieInfoId());
+          assertEquals("Batman updated", updateMovieInfo.getName());
+          assertEquals(0L, updateMovieInfo.getVersion());
+        });
+
+    //then the next update is versioned
+    assertEquals(0L, movieInfoRepository.findById("legacy").block().getVersion());
+  }
+
+  @Test
+  void addMovieInfo_existingId() {
+    //given
+    var movieInfo = new MovieInfo("abc", "Batman replaced", 2008, List.of("Chist"),
+        LocalDate.parse("2008-06-15"));
+
+    //when
+    webTestClient
+        .post()
+        .uri(URL_MOVIE_INFOS)
+        .bodyValue(movieInfo)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(409);
+
+    //then the live movieInfo is left as it was
+    assertEquals("Batman1", movieInfoRepository.findById("abc").block().getName());
+  }
+
+  @Test
+  void patchMovieInfo() {
+    //given
+    var movieInfoId ="abc";
+    var version = movieInfoRepository.findById(movieInfoId).block().getVersion();
+    var patch = new MovieInfoPatch("Batman patched", null, null, null, version);
+
+    //when
+    webTestClient
+        .patch()
+        .uri(URL_MOVIE_INFOS+"/{id}",movieInfoId)
+        .bodyValue(patch)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBody(MovieInfo.class)
+        .consumeWith(movieInfoEntityExchangeResult -> {
+          var patchedMovieInfo = movieInfoEntityExchangeResult.getResponseBody();
+          assert patchedMovieInfo != null;
+          assertEquals("Batman patched",patchedMovieInfo.getName());
+          assertEquals(2008,patchedMovieInfo.getYear());
+          assertEquals(version + 1,patchedMovieInfo.getVersion());
+        });
+  }
+
+  @Test
+  void patchMovieInfo_staleVersion() {
+    //given
+    var movieInfoId ="abc";
+    var version = movieInfoRepository.findById(movieInfoId).block().getVersion();
+    var patch = new MovieInfoPatch("Batman patched", null, null, null, version - 1);
+
+    //when
+    webTestClient
+        .patch()
+        .uri(URL_MOVIE_INFOS+"/{id}",movieInfoId)
+        .bodyValue(patch)
+        .exchange()
+        .expectStatus()
+        .isEqualTo(409);
+  }
+
   @Test
   void deleteMovieInfo() {
     //given
@@ -167,6 +705,110 @@ public class MoviesInfoControllerIntegTest {
         .expectBody(Void.class);
   }
 
+  @Test
+  void deleteMovieInfo_invalidatesCachedMovieInfo() {
+    //given
+    var movieInfoId ="abc";
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/{id}",movieInfoId)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful();
+
+    //when
+    webTestClient
+        .delete()
+        .uri(URL_MOVIE_INFOS+"/{id}",movieInfoId)
+        .exchange()
+        .expectStatus()
+        .isNoContent();
+
+    //then
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/{id}",movieInfoId)
+        .exchange()
+        .expectStatus()
+        .isNotFound();
+  }
+
+  @Test
+  void deleteMovieInfos_byYear() {
+    webTestClient
+        .post()
+        .uri(URL_MOVIE_INFOS+"/bulk/delete")
+        .bodyValue(new MovieInfoDeleteFilter(2005, null))
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBody(MovieInfoDeleteResult.class)
+        .isEqualTo(new MovieInfoDeleteResult(1));
+
+    //the tombstone is left for the purge but no read returns it
+    assertEquals(3, reactiveMongoTemplate.count(new Query(), MovieInfo.class).block());
+    assertEquals(2, movieInfoRepository.count().block());
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"?year={year}",2005)
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfo.class)
+        .hasSize(0);
+  }
+
+  @Test
+  void deleteMovieInfos_tooManyIds() {
+    var ids = IntStream.range(0, 10_001).mapToObj(String::valueOf).toList();
+    webTestClient
+        .post()
+        .uri(URL_MOVIE_INFOS+"/bulk/delete")
+        .bodyValue(new MovieInfoDeleteFilter(null, ids))
+        .exchange()
+        .expectStatus()
+        .isBadRequest();
+  }
+
+  @Test
+  void addMovieInfo_overTombstone() {
+    webTestClient.delete().uri(URL_MOVIE_INFOS+"/{id}","abc").exchange().expectStatus().isNoContent();
+    assertEquals(false, movieInfoRepository.existsById("abc").block());
+
+    //the tombstone waiting for the purge does not hold the id
+    webTestClient
+        .post()
+        .uri(URL_MOVIE_INFOS)
+        .bodyValue(new MovieInfo("abc", "Batman again", 2008, List.of("Chist"), LocalDate.parse("2008-06-15")))
+        .exchange()
+        .expectStatus()
+        .isCreated();
+    webTestClient
+        .get()
+        .uri(URL_MOVIE_INFOS+"/{id}","abc")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBody(MovieInfo.class)
+        .consumeWith(result -> assertEquals("Batman again", result.getResponseBody().getName()));
+  }
+
+  @Test
+  void addMovieInfos_bulkOverTombstone() {
+    webTestClient.delete().uri(URL_MOVIE_INFOS+"/{id}","abc").exchange().expectStatus().isNoContent();
+
+    webTestClient
+        .post()
+        .uri(URL_MOVIE_INFOS+"/bulk")
+        .bodyValue(List.of(new MovieInfo("abc", "Batman again", 2008, List.of("Chist"), LocalDate.parse("2008-06-15"))))
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectBodyList(MovieInfoBulkResult.class)
+        .consumeWith(result -> assertEquals(Status.CREATED, result.getResponseBody().get(0).status()));
+    assertEquals(true, movieInfoRepository.existsById("abc").block());
+  }
+
   @Test
   void updateMovieInfo_notfound() {
     //given
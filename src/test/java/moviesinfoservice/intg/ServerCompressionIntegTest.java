@@ -0,0 +1,42 @@
+import moviesinfoservice.MoviesInfoServiceApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+//same compression settings as the prod profile, with a threshold low enough for the demo endpoint
+@SpringBootTest(classes = MoviesInfoServiceApplication.class, webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = {"server.compression.enabled=true", "server.compression.min-response-size=1",
+        "moviesinfo.server.tuning-enabled=true"})
+public class ServerCompressionIntegTest {
+
+  @Autowired
+  WebTestClient webTestClient;
+
+  @Test
+  void responseIsCompressed_whenClientAcceptsGzip() {
+    webTestClient
+        .get()
+        .uri("/flux")
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectHeader()
+        .valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip");
+  }
+
+  @Test
+  void responseIsNotCompressed_whenClientDoesNotAcceptGzip() {
+    webTestClient
+        .get()
+        .uri("/flux")
+        .exchange()
+        .expectStatus()
+        .is2xxSuccessful()
+        .expectHeader()
+        .doesNotExist(HttpHeaders.CONTENT_ENCODING);
+  }
+}
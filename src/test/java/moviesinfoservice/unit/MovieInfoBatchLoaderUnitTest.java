@@ -0,0 +1,118 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import moviesinfoservice.config.BatchLookupProperties;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.metrics.MovieInfoMetrics;
+import moviesinfoservice.repository.MovieInfoRepository;
+import moviesinfoservice.service.MovieInfoBatchLoader;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class MovieInfoBatchLoaderUnitTest {
+
+  private final BatchLookupProperties batchLookupProperties = new BatchLookupProperties();
+  private final MovieInfoRepository movieInfoRepository = mock(MovieInfoRepository.class);
+  //the ids of each query and the movieInfos it emits once released
+  private final List<Set<String>> queries = new CopyOnWriteArrayList<>();
+  private final List<Sinks.Many<MovieInfo>> results = new CopyOnWriteArrayList<>();
+
+  private static MovieInfo movieInfo(String movieInfoId) {
+    return new MovieInfo(movieInfoId, "Batman", 2005, List.of("Christian"), LocalDate.parse("2005-06-15"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private MovieInfoBatchLoader loader() {
+    when(movieInfoRepository.findAllById(any(Iterable.class))).thenAnswer(invocation -> {
+      var ids = new HashSet<String>();
+      ((Iterable<String>) invocation.getArgument(0)).forEach(ids::add);
+      var result = Sinks.many().unicast().<MovieInfo>onBackpressureBuffer();
+      queries.add(ids);
+      results.add(result);
+      return result.asFlux();
+    });
+    batchLookupProperties.setWindow(Duration.ofSeconds(10));
+    return new MovieInfoBatchLoader(movieInfoRepository, new MovieInfoMetrics(new SimpleMeterRegistry()),
+        batchLookupProperties);
+  }
+
+  private void release(int query) {
+    var result = results.get(query);
+    queries.get(query).stream()
+        .filter(id -> !id.equals("unknown"))
+        .forEach(id -> result.tryEmitNext(movieInfo(id)));
+    result.tryEmitComplete();
+  }
+
+  @Test
+  void load_withoutQueryRunning() {
+    var loader = loader();
+
+    //nothing to batch with, the lookup does not wait for the window
+    var batman = loader.load("abc").toFuture();
+    assertEquals(List.of(Set.of("abc")), queries);
+    release(0);
+    assertEquals("abc", batman.join().getMovieInfoId());
+  }
+
+  @Test
+  void load_coalescedWhileQueryRuns() {
+    var loader = loader();
+    var first = loader.load("abc").toFuture();
+    var lookups = new ArrayList<CompletableFuture<MovieInfo>>();
+    for (var id : List.of("def", "ghi", "def", "unknown")) {
+      lookups.add(loader.load(id).toFuture());
+    }
+    assertEquals(1, queries.size());
+
+    //the lookups made while the first query ran go out together once it completes
+    release(0);
+    assertEquals("abc", first.join().getMovieInfoId());
+    assertEquals(List.of(Set.of("abc"), Set.of("def", "ghi", "unknown")), queries);
+    release(1);
+    assertEquals("def", lookups.get(0).join().getMovieInfoId());
+    assertEquals("ghi", lookups.get(1).join().getMovieInfoId());
+    assertEquals("def", lookups.get(2).join().getMovieInfoId());
+    assertNull(lookups.get(3).join());
+  }
+
+  @Test
+  void load_fullBatchDoesNotWait() {
+    batchLookupProperties.setMaxBatchSize(2);
+    var loader = loader();
+    loader.load("abc").subscribe();
+    loader.load("def").subscribe();
+    assertEquals(1, queries.size());
+
+    loader.load("ghi").subscribe();
+    assertEquals(List.of(Set.of("abc"), Set.of("def", "ghi")), queries);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void load_queryRunsInLookupContext() {
+    var contexts = new CopyOnWriteArrayList<String>();
+    when(movieInfoRepository.findAllById(any(Iterable.class))).thenReturn(Flux.deferContextual(context -> {
+      contexts.add(context.getOrDefault("trace", "none"));
+      return Flux.just(movieInfo("abc"));
+    }));
+    var loader = new MovieInfoBatchLoader(movieInfoRepository, new MovieInfoMetrics(new SimpleMeterRegistry()),
+        batchLookupProperties);
+
+    loader.load("abc").contextWrite(context -> context.put("trace", "request-1")).block();
+    assertEquals(List.of("request-1"), contexts);
+  }
+}
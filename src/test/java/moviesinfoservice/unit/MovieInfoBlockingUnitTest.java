@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import moviesinfoservice.blocking.MovieInfoBlocking;
+import moviesinfoservice.config.BlockingProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class MovieInfoBlockingUnitTest {
+
+  @Test
+  void call_onVirtualThread(){
+    var blocking = new MovieInfoBlocking(new BlockingProperties());
+
+    StepVerifier.create(blocking.call(() -> Thread.currentThread().isVirtual()))
+        .expectNext(true)
+        .verifyComplete();
+    blocking.dispose();
+  }
+
+  @Test
+  void call_boundedElasticWhenDisabled(){
+    var properties = new BlockingProperties();
+    properties.setVirtualThreads(false);
+    var blocking = new MovieInfoBlocking(properties);
+
+    StepVerifier.create(blocking.call(() -> Thread.currentThread().isVirtual()))
+        .expectNext(false)
+        .verifyComplete();
+    blocking.dispose();
+    assertFalse(blocking.scheduler().isDisposed());
+  }
+
+  @Test
+  void call_thousandsBlockedAtOnce(){
+    var blocking = new MovieInfoBlocking(new BlockingProperties());
+
+    //each call blocks until all of them are blocked, which a pool of 10 threads per core never lets happen
+    var allBlocked = new CountDownLatch(10_000);
+    var inFlight = new AtomicInteger();
+    var peakInFlight = new AtomicInteger();
+    var count = Flux.range(0, 10_000)
+        .flatMap(call -> blocking.call(() -> {
+          peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          allBlocked.countDown();
+          allBlocked.await(20, TimeUnit.SECONDS);
+          inFlight.decrementAndGet();
+          return call;
+        }), 10_000)
+        .count()
+        .block(Duration.ofSeconds(30));
+    assertEquals(10_000L, count);
+    assertEquals(10_000, peakInFlight.get());
+    blocking.dispose();
+  }
+}
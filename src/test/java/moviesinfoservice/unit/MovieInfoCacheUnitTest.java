@@ -0,0 +1,73 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import moviesinfoservice.cache.MovieInfoCache;
+import moviesinfoservice.config.MovieInfoCacheProperties;
+import moviesinfoservice.config.ReadRoutingProperties;
+import moviesinfoservice.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class MovieInfoCacheUnitTest {
+
+  private final MovieInfoCacheProperties cacheProperties = new MovieInfoCacheProperties();
+  private final ReadRoutingProperties readRoutingProperties = new ReadRoutingProperties();
+
+  private static MovieInfo movieInfo(String name) {
+    return new MovieInfo("abc", name, 2008, List.of("Christian"), LocalDate.parse("2008-06-15"));
+  }
+
+  //the stale load is dropped on the cache executor once it completed
+  private static void awaitSize(MovieInfoCache cache, long size) throws InterruptedException {
+    var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (cache.stats().size() != size && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(size, cache.stats().size());
+  }
+
+  @Test
+  void get_cachesLoad(){
+    var cache = new MovieInfoCache(cacheProperties, readRoutingProperties, new SimpleMeterRegistry());
+    var loads = new AtomicInteger();
+
+    for (int i = 0; i < 2; i++) {
+      assertEquals("Batman", cache.get("abc", id -> {
+        loads.incrementAndGet();
+        return Mono.just(movieInfo("Batman"));
+      }).block().getName());
+    }
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void get_invalidatedWhileLoading() throws InterruptedException {
+    var cache = new MovieInfoCache(cacheProperties, readRoutingProperties, new SimpleMeterRegistry());
+    var load = Sinks.<MovieInfo>one();
+    var stale = cache.get("abc", id -> load.asMono()).toFuture();
+
+    cache.invalidate("abc");
+    load.tryEmitValue(movieInfo("Batman"));
+
+    //the callers of the load still get its result, the next lookup reads the write
+    assertEquals("Batman", stale.join().getName());
+    awaitSize(cache, 0);
+    assertEquals("Batman updated", cache.get("abc", id -> Mono.just(movieInfo("Batman updated"))).block().getName());
+  }
+
+  @Test
+  void get_withinReplicaLagOfInvalidation() throws InterruptedException {
+    readRoutingProperties.setEnabled(true);
+    var cache = new MovieInfoCache(cacheProperties, readRoutingProperties, new SimpleMeterRegistry());
+    cache.invalidate("abc");
+
+    //a secondary may still serve the version before the write, the load is not kept
+    cache.get("abc", id -> Mono.just(movieInfo("Batman"))).block();
+    awaitSize(cache, 0);
+  }
+}
@@ -0,0 +1,111 @@
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import moviesinfoservice.config.ChangeFeedProperties;
+import moviesinfoservice.config.ChangeFeedProperties.Source;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.domain.MovieInfoEvent;
+import moviesinfoservice.domain.MovieInfoEvent.Type;
+import moviesinfoservice.service.MovieInfoChangeFeed;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class MovieInfoChangeFeedUnitTest {
+
+  private final ChangeFeedProperties changeFeedProperties = new ChangeFeedProperties();
+
+  private static MovieInfo movieInfo(String movieInfoId) {
+    return new MovieInfo(movieInfoId, "Batman", 2005, List.of("Christian"), LocalDate.parse("2005-06-15"));
+  }
+
+  private MovieInfoChangeFeed localFeed() {
+    changeFeedProperties.setSource(Source.LOCAL);
+    var changeFeed = new MovieInfoChangeFeed(null, changeFeedProperties);
+    changeFeed.start();
+    return changeFeed;
+  }
+
+  @Test
+  void events_live() {
+    var changeFeed = localFeed();
+
+    StepVerifier.create(changeFeed.events(null))
+        .then(() -> changeFeed.publishInsert(movieInfo("abc")))
+        .assertNext(event -> {
+          assert event.type() == Type.INSERT;
+          assert event.movieInfoId().equals("abc");
+        })
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void events_resumeFromHistory() {
+    var changeFeed = localFeed();
+    var first = changeFeed.events(null).next().toFuture();
+    changeFeed.publishInsert(movieInfo("abc"));
+    changeFeed.publishUpdate(movieInfo("abc"));
+    changeFeed.publishDelete("abc");
+
+    //the events missed since the token, then the live ones
+    StepVerifier.create(changeFeed.events(first.join().resumeToken()).map(MovieInfoEvent::type))
+        .expectNext(Type.UPDATE, Type.DELETE)
+        .then(() -> changeFeed.publishInsert(movieInfo("def")))
+        .expectNext(Type.INSERT)
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void events_resumeBeforeHistory() {
+    changeFeedProperties.setHistorySize(1);
+    var changeFeed = localFeed();
+    var first = changeFeed.events(null).next().toFuture();
+    changeFeed.publishInsert(movieInfo("abc"));
+    changeFeed.publishUpdate(movieInfo("abc"));
+
+    //a local token out of the history cannot be replayed, only the live events follow
+    StepVerifier.create(changeFeed.events(first.join().resumeToken()).map(MovieInfoEvent::type))
+        .then(() -> changeFeed.publishDelete("abc"))
+        .expectNext(Type.DELETE)
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void start_autoFallsBackToLocalEvents() {
+    var reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+    when(reactiveMongoTemplate.getCollectionName(MovieInfo.class)).thenReturn("movieInfo");
+    var notSupported = new MongoCommandException(new BsonDocument("ok", new BsonInt32(0))
+        .append("code", new BsonInt32(40573))
+        .append("errmsg", new BsonString("The $changeStream stage is only supported on replica sets")),
+        new ServerAddress());
+    when(reactiveMongoTemplate.executeCommand(any(Document.class)))
+        .thenReturn(Mono.error(new UncategorizedMongoDbException(notSupported.getMessage(), notSupported)));
+    changeFeedProperties.setSource(Source.AUTO);
+    var changeFeed = new MovieInfoChangeFeed(reactiveMongoTemplate, changeFeedProperties);
+    changeFeed.start();
+
+    //the change stream is not active, the writes are published locally
+    StepVerifier.create(changeFeed.events(null))
+        .then(() -> changeFeed.publishInsert(movieInfo("abc")))
+        .assertNext(event -> {
+          assert event.type() == Type.INSERT;
+        })
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+  }
+}
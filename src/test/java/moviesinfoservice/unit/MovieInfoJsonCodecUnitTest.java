@@ -0,0 +1,84 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import moviesinfoservice.codec.MovieInfoJsonDecoder;
+import moviesinfoservice.codec.MovieInfoJsonEncoder;
+import moviesinfoservice.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+//the codec has to write and read exactly what the Jackson ObjectMapper of the application does
+class MovieInfoJsonCodecUnitTest {
+
+  //ISO dates like the Boot ObjectMapper
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+      .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build();
+  private final MovieInfoJsonEncoder encoder = new MovieInfoJsonEncoder(2);
+  private final MovieInfoJsonDecoder decoder = new MovieInfoJsonDecoder(objectMapper);
+  private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+  private final MovieInfo movieInfo = new MovieInfo("abc", "Batman \"Begins\"\n\t\\ é 漢 😀 \u0001", -2005,
+      Arrays.asList("Christian Bale", null, "Michael Caine"), LocalDate.parse("2005-06-05"), 3L,
+      Instant.parse("2023-04-01T10:15:30.120Z"), Instant.now());
+
+  @Test
+  void encodeValue() throws Exception {
+    var buffer = encoder.encodeValue(movieInfo, bufferFactory, ResolvableType.forClass(MovieInfo.class),
+        MediaType.APPLICATION_JSON, Map.of());
+
+    assertEquals(objectMapper.writeValueAsString(movieInfo), text(buffer));
+  }
+
+  @Test
+  void encodeValue_nullFields() throws Exception {
+    var partial = new MovieInfo(null, "Batman", null, null, null);
+    var buffer = encoder.encodeValue(partial, bufferFactory, ResolvableType.forClass(MovieInfo.class),
+        MediaType.APPLICATION_JSON, Map.of());
+
+    assertEquals(objectMapper.writeValueAsString(partial), text(buffer));
+  }
+
+  @Test
+  void encodeStream() throws Exception {
+    var movieInfos = List.of(movieInfo, new MovieInfo("def", "Batman", 2008, List.of(), null),
+        new MovieInfo("ghi", "Dark Knight", 2008, List.of("Heath Ledger"), LocalDate.parse("2008-07-18")));
+
+    var json = encoder.encode(Flux.fromIterable(movieInfos), bufferFactory, ResolvableType.forClass(MovieInfo.class),
+            MediaType.APPLICATION_JSON, Map.of())
+        .map(this::text)
+        .reduce(String::concat)
+        .block();
+
+    assertEquals(objectMapper.writeValueAsString(movieInfos), json);
+  }
+
+  @Test
+  void decode() throws Exception {
+    var json = objectMapper.writeValueAsBytes(movieInfo);
+
+    var decoded = decoder.decode(bufferFactory.wrap(json), ResolvableType.forClass(MovieInfo.class),
+        MediaType.APPLICATION_JSON, Map.of());
+
+    assertEquals(objectMapper.readValue(json, MovieInfo.class), decoded);
+  }
+
+  private String text(DataBuffer buffer) {
+    var text = buffer.toString(StandardCharsets.UTF_8);
+    DataBufferUtils.release(buffer);
+    return text;
+  }
+}
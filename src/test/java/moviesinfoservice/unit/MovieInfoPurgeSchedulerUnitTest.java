@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import moviesinfoservice.config.PurgeProperties;
+import moviesinfoservice.metrics.MovieInfoMetrics;
+import moviesinfoservice.repository.MovieInfoRepository;
+import moviesinfoservice.service.MovieInfoPurgeScheduler;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+
+class MovieInfoPurgeSchedulerUnitTest {
+
+  private final PurgeProperties purgeProperties = new PurgeProperties();
+  private final MovieInfoRepository movieInfoRepository = mock(MovieInfoRepository.class);
+
+  private MovieInfoPurgeScheduler scheduler() {
+    //no pause between the batches
+    purgeProperties.setMaxDeletesPerSecond(Integer.MAX_VALUE);
+    return new MovieInfoPurgeScheduler(movieInfoRepository, purgeProperties,
+        new MovieInfoMetrics(new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void purge_untilPartialBatch() {
+    when(movieInfoRepository.purgeTombstones(any(), anyInt()))
+        .thenReturn(Mono.just(500L), Mono.just(500L), Mono.just(200L));
+
+    assertEquals(1200L, scheduler().purge().block(Duration.ofSeconds(5)));
+    verify(movieInfoRepository, times(3)).purgeTombstones(any(), eq(500));
+  }
+
+  @Test
+  void purge_nothingToPurge() {
+    when(movieInfoRepository.purgeTombstones(any(), anyInt())).thenReturn(Mono.just(0L));
+
+    assertEquals(0L, scheduler().purge().block(Duration.ofSeconds(5)));
+    verify(movieInfoRepository, times(1)).purgeTombstones(any(), anyInt());
+  }
+
+  @Test
+  void purge_keepsTombstonesWithinRetention() {
+    purgeProperties.setRetention(Duration.ofMinutes(10));
+    when(movieInfoRepository.purgeTombstones(any(), anyInt())).thenReturn(Mono.just(0L));
+
+    var before = Instant.now();
+    scheduler().purge().block(Duration.ofSeconds(5));
+    var deletedBefore = ArgumentCaptor.forClass(Instant.class);
+    verify(movieInfoRepository).purgeTombstones(deletedBefore.capture(), anyInt());
+    assertTrue(deletedBefore.getValue().isBefore(before.minus(Duration.ofMinutes(9))));
+  }
+}
@@ -0,0 +1,110 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import moviesinfoservice.config.CircuitBreakerProperties;
+import moviesinfoservice.config.HedgingProperties;
+import moviesinfoservice.config.TimeoutProperties;
+import moviesinfoservice.exception.DeadlineExceededException;
+import moviesinfoservice.exception.ServiceUnavailableException;
+import moviesinfoservice.resilience.MongoCircuitBreaker;
+import moviesinfoservice.resilience.MovieInfoResilience;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class MovieInfoResilienceUnitTest {
+
+  private final TimeoutProperties timeoutProperties = new TimeoutProperties();
+  private final CircuitBreakerProperties circuitBreakerProperties = new CircuitBreakerProperties();
+
+  private final HedgingProperties hedgingProperties = new HedgingProperties();
+
+  private MovieInfoResilience resilience() {
+    var meterRegistry = new SimpleMeterRegistry();
+    return new MovieInfoResilience(timeoutProperties, hedgingProperties,
+        new MongoCircuitBreaker(circuitBreakerProperties, meterRegistry), meterRegistry);
+  }
+
+  @Test
+  void guard_timeout(){
+    timeoutProperties.getMethods().put("findById", Duration.ofMillis(50));
+
+    StepVerifier.create(resilience().guard("findById", Mono.never()))
+        .expectError(DeadlineExceededException.class)
+        .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void guard_opensOnFailures(){
+    circuitBreakerProperties.setMinimumCalls(4);
+    circuitBreakerProperties.setWindowSize(4);
+    var resilience = resilience();
+
+    for (int i = 0; i < 4; i++) {
+      StepVerifier.create(resilience.guard("findById", Mono.error(new DataAccessResourceFailureException("down"))))
+          .expectError(DataAccessResourceFailureException.class)
+          .verify();
+    }
+
+    StepVerifier.create(resilience.guard("findById", Mono.just("movieInfo")))
+        .expectError(ServiceUnavailableException.class)
+        .verify();
+  }
+
+  @Test
+  void guard_conflictsDoNotOpen(){
+    circuitBreakerProperties.setMinimumCalls(4);
+    circuitBreakerProperties.setWindowSize(4);
+    var resilience = resilience();
+
+    for (int i = 0; i < 4; i++) {
+      StepVerifier.create(resilience.guard("update", Mono.error(new OptimisticLockingFailureException("stale"))))
+          .expectError(OptimisticLockingFailureException.class)
+          .verify();
+    }
+
+    var movieInfo = resilience.guard("findById", Mono.just("movieInfo")).block();
+    assertEquals("movieInfo", movieInfo);
+  }
+
+  @Test
+  void hedge_firstFailsHedgeAnswers(){
+    hedgingProperties.setEnabled(true);
+    hedgingProperties.setInitialDelay(Duration.ofMillis(10));
+    var attempts = new AtomicInteger();
+
+    //the first attempt fails before the hedge starts, the hedge still answers
+    StepVerifier.create(resilience().hedge("findById", () -> attempts.incrementAndGet() == 1
+            ? Mono.error(new DataAccessResourceFailureException("down"))
+            : Mono.just("movieInfo")))
+        .expectNext("movieInfo")
+        .verifyComplete();
+  }
+
+  @Test
+  void hedge_notFoundDoesNotWaitForTheHedge(){
+    hedgingProperties.setEnabled(true);
+    hedgingProperties.setInitialDelay(Duration.ofSeconds(10));
+
+    StepVerifier.create(resilience().hedge("findById", Mono::empty))
+        .expectComplete()
+        .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void hedge_bothFailKeepsFirstError(){
+    hedgingProperties.setEnabled(true);
+    hedgingProperties.setInitialDelay(Duration.ofMillis(10));
+    var attempts = new AtomicInteger();
+
+    StepVerifier.create(resilience().hedge("findById", () -> attempts.incrementAndGet() == 1
+            ? Mono.error(new DataAccessResourceFailureException("down"))
+            : Mono.error(new IllegalStateException("hedge"))))
+        .expectError(DataAccessResourceFailureException.class)
+        .verify(Duration.ofSeconds(5));
+  }
+}
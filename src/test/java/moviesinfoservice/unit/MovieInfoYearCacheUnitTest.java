@@ -0,0 +1,118 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import moviesinfoservice.cache.MovieInfoYearCache;
+import moviesinfoservice.cache.MovieInfoYearSnapshot;
+import moviesinfoservice.config.YearCacheProperties;
+import moviesinfoservice.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class MovieInfoYearCacheUnitTest {
+
+  private static MovieInfo movieInfo(String id, int year, long version) {
+    return new MovieInfo(id, "Batman " + id, year, List.of("Christian"), LocalDate.of(year, 6, 15), version,
+        null, null);
+  }
+
+  private static List<String> ids(List<MovieInfo> movieInfos) {
+    return movieInfos.stream().map(MovieInfo::getMovieInfoId).toList();
+  }
+
+  @Test
+  void snapshot_pages(){
+    var snapshot = MovieInfoYearSnapshot.of(2005,
+        List.of(movieInfo("c", 2005, 0), movieInfo("a", 2005, 0), movieInfo("b", 2005, 0)));
+
+    assertEquals(List.of("a", "b"), ids(snapshot.page(null, 2)));
+    assertEquals(List.of("c"), ids(snapshot.page("b", 2)));
+    assertEquals(List.of("b", "c"), ids(snapshot.page("aa", 5)));
+    assertEquals(List.of(), ids(snapshot.page("c", 2)));
+  }
+
+  @Test
+  void snapshot_withAndWithout(){
+    var snapshot = MovieInfoYearSnapshot.of(2005, List.of(movieInfo("a", 2005, 0), movieInfo("c", 2005, 0)));
+
+    var patched = snapshot.with(movieInfo("b", 2005, 0)).with(movieInfo("a", 2005, 1)).without("c");
+
+    assertEquals(List.of("a", "b"), ids(patched.movieInfos()));
+    assertEquals(1L, patched.movieInfos().get(0).getVersion());
+    assertEquals(List.of("a", "c"), ids(snapshot.movieInfos()));
+    //an older version arriving late is ignored
+    assertEquals(1L, patched.with(movieInfo("a", 2005, 0)).movieInfos().get(0).getVersion());
+    assertEquals(MovieInfoYearSnapshot.of(2005, patched.movieInfos()).estimatedBytes(), patched.estimatedBytes());
+  }
+
+  @Test
+  void apply_movesBetweenYears(){
+    var cache = new MovieInfoYearCache(new YearCacheProperties(), new SimpleMeterRegistry());
+    var loads = new AtomicInteger();
+    cache.get(2005, year -> {
+      loads.incrementAndGet();
+      return Mono.just(MovieInfoYearSnapshot.of(year, List.of(movieInfo("a", 2005, 0))));
+    }).block();
+    cache.get(2008, year -> Mono.just(MovieInfoYearSnapshot.of(year, List.of(movieInfo("b", 2008, 0))))).block();
+
+    cache.apply(movieInfo("b", 2008, 0), movieInfo("b", 2005, 1));
+
+    var year2005 = cache.get(2005, year -> Mono.error(new IllegalStateException("cached"))).block();
+    var year2008 = cache.get(2008, year -> Mono.error(new IllegalStateException("cached"))).block();
+    assertEquals(List.of("a", "b"), ids(year2005.movieInfos()));
+    assertEquals(List.of(), ids(year2008.movieInfos()));
+    assertEquals(1, loads.get());
+    assertEquals(Map.of(2005, 2L, 2008, 2L), cache.drainRequestCounts());
+    assertEquals(Map.of(), cache.drainRequestCounts());
+  }
+
+  @Test
+  void apply_dropsLoadInFlight(){
+    var cache = new MovieInfoYearCache(new YearCacheProperties(), new SimpleMeterRegistry());
+    var load = Sinks.<MovieInfoYearSnapshot>one();
+    var stale = cache.get(2005, year -> load.asMono()).toFuture();
+
+    cache.apply(null, movieInfo("b", 2005, 0));
+    load.tryEmitValue(MovieInfoYearSnapshot.of(2005, List.of(movieInfo("a", 2005, 0))));
+
+    //the load that raced with the write still answers its callers but is not kept
+    assertEquals(List.of("a"), ids(stale.join().movieInfos()));
+    var reloaded = cache.get(2005, year -> Mono.just(MovieInfoYearSnapshot.of(year,
+        List.of(movieInfo("a", 2005, 0), movieInfo("b", 2005, 0))))).block();
+    assertEquals(List.of("a", "b"), ids(reloaded.movieInfos()));
+  }
+
+  @Test
+  void snapshot_mongoIdOrder(){
+    var objectId = "5f1d7a2b9c8e4a0012345678";
+    var snapshot = MovieInfoYearSnapshot.of(2005,
+        List.of(movieInfo(objectId, 2005, 0), movieInfo("zzz", 2005, 0), movieInfo("abc", 2005, 0)));
+
+    //every string id sorts before every ObjectId, like the keyset pages read from Mongo
+    assertEquals(List.of("abc", "zzz", objectId), ids(snapshot.movieInfos()));
+    assertEquals(List.of(objectId), ids(snapshot.page("zzz", 5)));
+    assertEquals(List.of("abc", "b", "zzz", objectId), ids(snapshot.with(movieInfo("b", 2005, 0)).movieInfos()));
+  }
+
+  @Test
+  void applyChange_movesBetweenYears(){
+    var cache = new MovieInfoYearCache(new YearCacheProperties(), new SimpleMeterRegistry());
+    cache.get(2005, year -> Mono.just(MovieInfoYearSnapshot.of(year, List.of(movieInfo("a", 2005, 0))))).block();
+    cache.get(2008, year -> Mono.just(MovieInfoYearSnapshot.of(year, List.of(movieInfo("b", 2008, 0))))).block();
+
+    //a write of another instance only tells the year the movieInfo has now
+    cache.applyChange("b", movieInfo("b", 2005, 1));
+    assertEquals(List.of("a", "b"), ids(cache.get(2005, year -> Mono.error(new IllegalStateException())).block()
+        .movieInfos()));
+    assertEquals(List.of(), ids(cache.get(2008, year -> Mono.error(new IllegalStateException())).block()
+        .movieInfos()));
+
+    cache.applyChange("a", null);
+    assertEquals(List.of("b"), ids(cache.get(2005, year -> Mono.error(new IllegalStateException())).block()
+        .movieInfos()));
+  }
+}
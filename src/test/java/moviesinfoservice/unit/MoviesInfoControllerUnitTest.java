@@ -1,4 +1,7 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 
@@ -41,7 +44,7 @@ class MoviesInfoControllerUnitTest {
         new MovieInfo(null,"Batman2",20012,List.of("Chist2","Michael2"), LocalDate.parse("2012-06-15"))
     );
 
-    when(moviesInfoService.getAllMovieInfos()).thenReturn(Flux.fromIterable(movieInfos));
+    when(moviesInfoService.getMovieInfosPage(isNull(), isNull(), anyInt(), anySet())).thenReturn(Flux.fromIterable(movieInfos));
 
     webTestClient
         .get()
@@ -135,7 +138,7 @@ class MoviesInfoControllerUnitTest {
   void deleteMovieInfo() {
     //given
     var movieInfoId ="abc";
-    when(moviesInfoService.deleteMovieInfo(movieInfoId))
+    when(moviesInfoService.deleteMovieInfo(movieInfoId, null))
         .thenReturn(Mono.empty());
     //when
     webTestClient
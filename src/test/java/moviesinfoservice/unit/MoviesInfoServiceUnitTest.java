@@ -0,0 +1,107 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import moviesinfoservice.cache.MovieInfoCache;
+import moviesinfoservice.cache.MovieInfoYearCache;
+import moviesinfoservice.config.BatchLookupProperties;
+import moviesinfoservice.config.ChangeFeedProperties;
+import moviesinfoservice.config.CircuitBreakerProperties;
+import moviesinfoservice.config.HedgingProperties;
+import moviesinfoservice.config.MovieInfoCacheProperties;
+import moviesinfoservice.config.ReadRoutingProperties;
+import moviesinfoservice.config.StatisticsProperties;
+import moviesinfoservice.config.TimeoutProperties;
+import moviesinfoservice.config.YearCacheProperties;
+import moviesinfoservice.domain.MovieInfo;
+import moviesinfoservice.exception.DeadlineExceededException;
+import moviesinfoservice.metrics.MovieInfoMetrics;
+import moviesinfoservice.repository.MovieInfoRepository;
+import moviesinfoservice.repository.MovieInfoStatisticsRepository;
+import moviesinfoservice.resilience.Deadline;
+import moviesinfoservice.resilience.DeadlineFilter;
+import moviesinfoservice.resilience.MongoCircuitBreaker;
+import moviesinfoservice.resilience.MovieInfoResilience;
+import moviesinfoservice.service.MovieInfoBatchLoader;
+import moviesinfoservice.service.MovieInfoChangeFeed;
+import moviesinfoservice.service.MovieInfoStatisticsService;
+import moviesinfoservice.service.MoviesInfoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class MoviesInfoServiceUnitTest {
+
+  private final TimeoutProperties timeoutProperties = new TimeoutProperties();
+  private final MovieInfoRepository movieInfoRepository = mock(MovieInfoRepository.class);
+  //the remaining time of the deadline each query ran with, empty without one
+  private final List<Optional<Duration>> queryDeadlines = new CopyOnWriteArrayList<>();
+
+  private MoviesInfoService service() {
+    var meterRegistry = new SimpleMeterRegistry();
+    var movieInfoMetrics = new MovieInfoMetrics(meterRegistry);
+    var changeFeedProperties = new ChangeFeedProperties();
+    changeFeedProperties.setSource(ChangeFeedProperties.Source.LOCAL);
+    return new MoviesInfoService(movieInfoRepository,
+        new MovieInfoCache(new MovieInfoCacheProperties(), new ReadRoutingProperties(), meterRegistry),
+        movieInfoMetrics,
+        new MovieInfoChangeFeed(null, changeFeedProperties),
+        new MovieInfoStatisticsService(mock(MovieInfoStatisticsRepository.class), new StatisticsProperties()),
+        new MovieInfoBatchLoader(movieInfoRepository, movieInfoMetrics, new BatchLookupProperties()),
+        new MovieInfoResilience(timeoutProperties, new HedgingProperties(),
+            new MongoCircuitBreaker(new CircuitBreakerProperties(), meterRegistry), meterRegistry),
+        new MovieInfoYearCache(new YearCacheProperties(), meterRegistry));
+  }
+
+  //a query that never answers, as a Mongo too slow for the deadline
+  @SuppressWarnings("unchecked")
+  private void slowQueries() {
+    when(movieInfoRepository.findAllById(any(Iterable.class))).thenReturn(Flux.deferContextual(context -> {
+      queryDeadlines.add(Deadline.from(context).map(Deadline::remaining));
+      return Flux.<MovieInfo>never();
+    }));
+  }
+
+  @Test
+  void getMovieInfosById_cacheMissBoundedByRequestTimeout() {
+    timeoutProperties.getMethods().put("findById", Duration.ofSeconds(5));
+    slowQueries();
+    var service = service();
+    var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/v1/moviesinfo/abc")
+        .header(Deadline.REQUEST_TIMEOUT_HEADER, "100"));
+
+    //the load behind the cache runs in the request context, its query gets the client deadline as maxTimeMS
+    StepVerifier.create(new DeadlineFilter(timeoutProperties)
+            .filter(exchange, filtered -> service.getMovieInfosById("abc").then()))
+        .expectError(DeadlineExceededException.class)
+        .verify(Duration.ofSeconds(2));
+    assertEquals(1, queryDeadlines.size());
+    assertTrue(queryDeadlines.get(0).orElseThrow().compareTo(Duration.ofMillis(100)) <= 0);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void getMovieInfosById_batchedQueryRunsInCallerContext() {
+    var queryTraces = new CopyOnWriteArrayList<String>();
+    when(movieInfoRepository.findAllById(any(Iterable.class))).thenReturn(Flux.deferContextual(context -> {
+      queryTraces.add(context.getOrDefault("trace", "none"));
+      return Flux.just(new MovieInfo("abc", "Batman Begins", 2005, List.of("Christian"), LocalDate.parse("2005-06-15")));
+    }));
+
+    //through the cache and the batch loader, not the loader alone
+    StepVerifier.create(service().getMovieInfosById("abc").contextWrite(context -> context.put("trace", "request-1")))
+        .expectNextMatches(movieInfo -> movieInfo.getName().equals("Batman Begins"))
+        .verifyComplete();
+    assertEquals(List.of("request-1"), queryTraces);
+  }
+}